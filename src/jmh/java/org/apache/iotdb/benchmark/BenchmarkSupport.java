@@ -0,0 +1,56 @@
+package org.apache.iotdb.benchmark;
+
+import org.apache.iotdb.tree.Scenario;
+import org.apache.iotdb.tree.ScenarioGenerator;
+import org.apache.iotdb.tree.Shard;
+import org.apache.iotdb.tree.TsFileGenerator;
+import org.apache.iotdb.utils.GeneratorConfig;
+
+import java.io.File;
+
+/**
+ * 读写基准测试共用的配置和生成器构造
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 按基准测试参数覆盖配置文件，LOOP 固定为1，种子固定便于对比
+     */
+    static GeneratorConfig createConfig(File dir, int schemasNumber, int rowNumber, double nullRatio, String nullPattern, String typeMix) {
+        return GeneratorConfig.load(new String[]{
+                "POSITION=" + dir.getPath() + File.separator,
+                "LOOP=1",
+                "NON_ALIGNED_SCHEMAS_NUMBER=" + schemasNumber,
+                "ALIGNED_SCHEMAS_NUMBER=" + schemasNumber,
+                "ROW_NUMBER=" + rowNumber,
+                "IS_CONTAIN_NULL_VALUES=" + (nullRatio > 0),
+                "NULL_PATTERN=" + nullPattern,
+                "NULL_RATIO=" + nullRatio,
+                "DATA_TYPES=" + dataTypes(typeMix),
+                "SEED=0"
+        });
+    }
+
+    /**
+     * 数据类型组合：ALL 为全部10种类型，NUMERIC 为定长类型，TEXT 为变长类型
+     */
+    static String dataTypes(String typeMix) {
+        switch (typeMix) {
+            case "ALL":
+                return "BOOLEAN,INT32,INT64,FLOAT,DOUBLE,TEXT,STRING,BLOB,TIMESTAMP,DATE";
+            case "NUMERIC":
+                return "BOOLEAN,INT32,INT64,FLOAT,DOUBLE,TIMESTAMP,DATE";
+            case "TEXT":
+                return "TEXT,STRING,BLOB";
+            default:
+                throw new IllegalArgumentException("未知的数据类型组合：" + typeMix);
+        }
+    }
+
+    static TsFileGenerator createGenerator(String scenario, GeneratorConfig config) {
+        return new ScenarioGenerator(config, Scenario.of(scenario), Shard.NONE);
+    }
+}
@@ -0,0 +1,112 @@
+package org.apache.iotdb.benchmark;
+
+import org.apache.iotdb.tree.TsFileGenerator;
+import org.apache.iotdb.utils.GeneratorConfig;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 四种树模型场景在不同输出方式和 fsync 策略下的写入基准测试，每次调用生成一个完整的场景文件（非对齐和对齐序列都写入）
+ * <p>
+ * 默认参数下文件较大，写入带宽受输出方式影响才明显；临时目录默认在 java.io.tmpdir，测试 NVMe 时用 -Djava.io.tmpdir 指定所在目录
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeOutputBenchmark {
+
+    @Param({"NoSameDevice_NoSameTimeStamp", "NoSameDevice_SameTimeStamp", "SameDevice_NoSameTimeStamp", "SameDevice_SameTimeStamp"})
+    public String scenario;
+
+    @Param({"STREAM", "CHANNEL", "MMAP", "ASYNC"})
+    public String outputMode;
+
+    @Param({"NEVER", "CLOSE"})
+    public String fsyncPolicy;
+
+    // CHANNEL、ASYNC 每块缓冲区的大小和 MMAP 的窗口大小（MB）
+    @Param({"8"})
+    public int bufferSize;
+
+    // 非对齐、对齐时间序列数量
+    @Param({"100"})
+    public int schemasNumber;
+
+    // 行数
+    @Param({"10000"})
+    public int rowNumber;
+
+    private TsFileGenerator generator;
+    private File dir;
+
+    /**
+     * 每秒写入的文件大小和数据点数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Output {
+        public double megabytes;
+        public long points;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("tree-output-benchmark").toFile();
+        GeneratorConfig config = BenchmarkSupport.createConfig(dir, schemasNumber, rowNumber, 0, "UNIFORM", "ALL").with(
+                "OUTPUT_MODE=" + outputMode,
+                "OUTPUT_BUFFER_SIZE=" + bufferSize,
+                "FSYNC_POLICY=" + fsyncPolicy,
+                "VERIFY_MODE=NONE",
+                "SERIES_MANIFEST=false");
+        generator = BenchmarkSupport.createGenerator(scenario, config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(new File(generator.getPath()).toPath());
+        Files.deleteIfExists(dir.toPath());
+    }
+
+    /**
+     * 写一个完整的文件，计时包含关闭时的索引写入和 fsync
+     */
+    @Benchmark
+    public void write(Output output) {
+        long pointNumber = generator.getPointNumber();
+        generator.testWrite();
+        output.points += generator.getPointNumber() - pointNumber;
+        output.megabytes += new File(generator.getPath()).length() / 1048576.0;
+    }
+
+    /**
+     * 在IDE中直接运行
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TreeOutputBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
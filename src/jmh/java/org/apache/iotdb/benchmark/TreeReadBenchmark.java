@@ -0,0 +1,196 @@
+package org.apache.iotdb.benchmark;
+
+import org.apache.iotdb.tree.BudgetedTsFileWriter;
+import org.apache.iotdb.tree.TsFileGenerator;
+import org.apache.iotdb.utils.GeneratorConfig;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.expression.IExpression;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 四种树模型场景生成文件的查询基准测试，生成参数与 TreeWriteBenchmark 一致
+ * <p>
+ * 对比对齐和非对齐序列、单序列和全部序列、全量扫描和时间过滤、每次重新打开文件（cold）和复用已打开的 reader（warm）；
+ * cold 只表示 reader 的元数据没有缓存，操作系统的页缓存仍然是热的
+ * <p>
+ * 默认参数只取一组时间序列数量、行数和数据类型组合，共128组，用作回归检查；完整的组合用 -p 指定，
+ * 如 -p schemasNumber=10,100 -p rowNumber=100,1000 -p nullRatio=0,0.5,0.95 -p typeMix=ALL,NUMERIC,TEXT
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeReadBenchmark {
+
+    @Param({"NoSameDevice_NoSameTimeStamp", "NoSameDevice_SameTimeStamp", "SameDevice_NoSameTimeStamp", "SameDevice_SameTimeStamp"})
+    public String scenario;
+
+    // 非对齐、对齐时间序列数量
+    @Param({"100"})
+    public int schemasNumber;
+
+    // 行数
+    @Param({"1000"})
+    public int rowNumber;
+
+    // 每列的空值比例，0表示不含空值
+    @Param({"0", "0.95"})
+    public double nullRatio;
+
+    // 空值的分布方式：UNIFORM、BURST 按 nullRatio，ALTERNATE 固定为50%
+    @Param({"UNIFORM"})
+    public String nullPattern;
+
+    // 数据类型组合：ALL 为全部10种类型，NUMERIC 为定长类型，TEXT 为变长类型
+    @Param({"ALL"})
+    public String typeMix;
+
+    // 查询对齐序列还是非对齐序列
+    @Param({"nonAligned", "aligned"})
+    public String layout;
+
+    // single 为第一个序列，many 为当前布局下的全部序列
+    @Param({"single", "many"})
+    public String series;
+
+    // full 为全量扫描，timeFilter 只查询中间一半的时间范围
+    @Param({"full", "timeFilter"})
+    public String query;
+
+    // cold 为每次查询重新打开文件，warm 为复用已打开的 reader
+    @Param({"cold", "warm"})
+    public String open;
+
+    private File dir;
+    private File file;
+    private List<Path> paths;
+    private IExpression filter;
+    private TsFileSequenceReader sequenceReader;
+    private TsFileReader reader;
+
+    /**
+     * 每秒读取的行数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Output {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, WriteProcessException {
+        dir = Files.createTempDirectory("tree-read-benchmark").toFile();
+        file = new File(dir, scenario + ".tsfile");
+        GeneratorConfig config = BenchmarkSupport.createConfig(dir, schemasNumber, rowNumber, nullRatio, nullPattern, typeMix);
+        TsFileGenerator generator = BenchmarkSupport.createGenerator(scenario, config);
+        // 对齐和非对齐序列都写入，NoSameDevice_NoSameTimeStamp 默认不写对齐序列，这里也一并写入便于对比
+        try (BudgetedTsFileWriter tsFileWriter = new BudgetedTsFileWriter(file, config.getWriterMemoryBudget())) {
+            generator.writeNonAligned(tsFileWriter);
+            generator.writeAligned(tsFileWriter);
+        }
+        List<Path> all = generator.getSeries("aligned".equals(layout));
+        paths = "single".equals(series) ? Collections.singletonList(all.get(0)) : all;
+        filter = "timeFilter".equals(query) ? createMiddleFilter() : null;
+        if ("warm".equals(open)) {
+            sequenceReader = new TsFileSequenceReader(file.getPath());
+            reader = new TsFileReader(sequenceReader);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(dir.toPath());
+    }
+
+    @Benchmark
+    public void read(Output output) throws IOException {
+        if (reader != null) {
+            output.rows += scan(reader);
+            return;
+        }
+        try (TsFileReader coldReader = new TsFileReader(new TsFileSequenceReader(file.getPath()))) {
+            output.rows += scan(coldReader);
+        }
+    }
+
+    /**
+     * 遍历查询结果，返回行数
+     */
+    private long scan(TsFileReader tsFileReader) throws IOException {
+        QueryDataSet dataSet = tsFileReader.query(QueryExpression.create(paths, filter));
+        long rows = 0;
+        while (dataSet.hasNext()) {
+            RowRecord record = dataSet.next();
+            if (record != null) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 先全量扫描一次得到时间范围，再构造只覆盖中间一半时间的过滤条件
+     */
+    private IExpression createMiddleFilter() throws IOException {
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        try (TsFileReader tsFileReader = new TsFileReader(new TsFileSequenceReader(file.getPath()))) {
+            QueryDataSet dataSet = tsFileReader.query(QueryExpression.create(paths, null));
+            while (dataSet.hasNext()) {
+                long time = dataSet.next().getTimestamp();
+                minTime = Math.min(minTime, time);
+                maxTime = Math.max(maxTime, time);
+            }
+        }
+        long quarter = (maxTime - minTime) / 4;
+        return new GlobalTimeExpression(TimeFilterApi.between(minTime + quarter, maxTime - quarter));
+    }
+
+    /**
+     * 在IDE中直接运行，默认开启GC分析器
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TreeReadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
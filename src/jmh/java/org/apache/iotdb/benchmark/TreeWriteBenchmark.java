@@ -0,0 +1,135 @@
+package org.apache.iotdb.benchmark;
+
+import org.apache.iotdb.tree.BudgetedTsFileWriter;
+import org.apache.iotdb.tree.TsFileGenerator;
+import org.apache.iotdb.utils.GeneratorConfig;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 四种树模型场景写入路径的基准测试：非对齐写入（write_tsfile）和对齐写入（writer_tsfile_align）
+ * <p>
+ * ops/s 为每秒写完的文件数，辅助计数器 megabytes、points 为每秒写入的文件大小和数据点数，分配速率使用 -prof gc 查看
+ * <p>
+ * 默认参数只取一组时间序列数量、行数和数据类型组合，共8组，用作回归检查；完整的组合用 -p 指定，
+ * 如 -p schemasNumber=10,100 -p rowNumber=100,1000 -p nullRatio=0,0.5,0.95 -p typeMix=ALL,NUMERIC,TEXT
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeWriteBenchmark {
+
+    @Param({"NoSameDevice_NoSameTimeStamp", "NoSameDevice_SameTimeStamp", "SameDevice_NoSameTimeStamp", "SameDevice_SameTimeStamp"})
+    public String scenario;
+
+    // 非对齐、对齐时间序列数量
+    @Param({"100"})
+    public int schemasNumber;
+
+    // 行数
+    @Param({"1000"})
+    public int rowNumber;
+
+    // 每列的空值比例，0表示不含空值
+    @Param({"0", "0.95"})
+    public double nullRatio;
+
+    // 空值的分布方式：UNIFORM、BURST 按 nullRatio，ALTERNATE 固定为50%
+    @Param({"UNIFORM"})
+    public String nullPattern;
+
+    // 数据类型组合：ALL 为全部10种类型，NUMERIC 为定长类型，TEXT 为变长类型
+    @Param({"ALL"})
+    public String typeMix;
+
+    private GeneratorConfig config;
+    private TsFileGenerator generator;
+    private File dir;
+    private File file;
+
+    /**
+     * 每秒写入的文件大小和数据点数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Output {
+        public double megabytes;
+        public long points;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("tree-write-benchmark").toFile();
+        file = new File(dir, scenario + ".tsfile");
+        config = BenchmarkSupport.createConfig(dir, schemasNumber, rowNumber, nullRatio, nullPattern, typeMix);
+        generator = BenchmarkSupport.createGenerator(scenario, config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(dir.toPath());
+    }
+
+    @Benchmark
+    public void writeNonAligned(Output output) throws IOException, WriteProcessException {
+        write(false, output);
+    }
+
+    @Benchmark
+    public void writeAligned(Output output) throws IOException, WriteProcessException {
+        write(true, output);
+    }
+
+    /**
+     * 写一个完整的文件，计时包含关闭时的刷盘和索引写入
+     */
+    private void write(boolean aligned, Output output) throws IOException, WriteProcessException {
+        Files.deleteIfExists(file.toPath());
+        long pointNumber = generator.getPointNumber();
+        BudgetedTsFileWriter tsFileWriter = new BudgetedTsFileWriter(file, config.getWriterMemoryBudget());
+        if (aligned) {
+            generator.writeAligned(tsFileWriter);
+        } else {
+            generator.writeNonAligned(tsFileWriter);
+        }
+        tsFileWriter.close();
+        output.points += generator.getPointNumber() - pointNumber;
+        output.megabytes += file.length() / 1048576.0;
+    }
+
+    /**
+     * 在IDE中直接运行，默认开启GC分析器
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TreeWriteBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -1,26 +1,44 @@
 package org.apache.iotdb;
 
-import org.apache.iotdb.tree.TreeTsFileV3_NoSameDevice_NoSameTimeStamp;
-import org.apache.iotdb.tree.TreeTsFileV3_NoSameDevice_SameTimeStamp;
-import org.apache.iotdb.tree.TreeTsFileV3_SameDevice_NoSameTimeStamp;
-import org.apache.iotdb.tree.TreeTsFileV3_SameDevice_SameTimeStamp;
+import org.apache.iotdb.engine.EncodingSweep;
+import org.apache.iotdb.engine.GenerateEngine;
+import org.apache.iotdb.engine.ShardPlanner;
+import org.apache.iotdb.tree.Scenario;
+import org.apache.iotdb.tree.ScenarioGenerator;
+import org.apache.iotdb.tree.Shard;
+import org.apache.iotdb.utils.GeneratorConfig;
+
+import java.io.File;
 
 public class Main {
     public static void main(String[] args) {
-        TreeTsFileV3_NoSameDevice_NoSameTimeStamp t1 = new TreeTsFileV3_NoSameDevice_NoSameTimeStamp();
-        t1.testWrite();
-        t1.testReader();
-
-        TreeTsFileV3_NoSameDevice_SameTimeStamp t2 = new TreeTsFileV3_NoSameDevice_SameTimeStamp();
-        t2.testWrite();
-        t2.testReader();
-
-        TreeTsFileV3_SameDevice_NoSameTimeStamp t3 = new TreeTsFileV3_SameDevice_NoSameTimeStamp();
-        t3.testWrite();
-        t3.testReader();
-
-        TreeTsFileV3_SameDevice_SameTimeStamp t4 = new TreeTsFileV3_SameDevice_SameTimeStamp();
-        t4.testWrite();
-        t4.testReader();
+        // 配置文件 < 系统属性（-DKEY=VALUE） < 命令行参数（KEY=VALUE），启动时解析一次
+        GeneratorConfig config = GeneratorConfig.initialize(args);
+        // 打印本次使用的随机种子，配置到SEED后可以复现相同的文件
+        System.out.println("随机种子：" + config.getSeed());
+        System.out.println("输出方式：" + config.getOutputBackend());
+        // 配置了 SWEEP_ENCODINGS 或 SWEEP_COMPRESSORS 时只执行编码扫描
+        if (config.isSweep()) {
+            EncodingSweep.run(config);
+            return;
+        }
+        // SCENARIOS 中的场景及其分片并行生成，WORKER_NUMBER=1 时等同于顺序执行
+        // RUN_SUMMARY=true 时全部完成后在 POSITION 下输出运行汇总
+        GenerateEngine engine = new GenerateEngine(config.getWorkerNumber(),
+                config.isRunSummary() ? new File(config.getPosition(), "TreeTsFileV3.summary.json") : null);
+        int generatorNumber = 0;
+        for (Shard shard : ShardPlanner.plan(config)) {
+            for (Scenario scenario : config.getScenarios()) {
+                engine.submit(new ScenarioGenerator(config, scenario, shard));
+                generatorNumber++;
+            }
+        }
+        // TABLET_MEMORY_BUDGET、WRITER_MEMORY_BUDGET 都是单个文件的预算，同时生成的文件各占一份，估算值超过 -Xmx 时提示
+        long peakMemory = config.estimatePeakMemory(Math.min(engine.getWorkerNumber(), generatorNumber));
+        System.out.printf("估算峰值内存：%.0f MB，最大堆：%.0f MB%n", peakMemory / 1048576.0, Runtime.getRuntime().maxMemory() / 1048576.0);
+        if (peakMemory > Runtime.getRuntime().maxMemory()) {
+            System.out.println("警告：估算峰值内存超过最大堆，请调小 WORKER_NUMBER、TABLET_MEMORY_BUDGET、WRITER_MEMORY_BUDGET 或 PIPELINE_QUEUE_CAPACITY，或增大 -Xmx");
+        }
+        engine.run();
     }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package org.apache.iotdb.engine;
+
+import org.apache.iotdb.tree.FileVerifier;
+import org.apache.iotdb.tree.Scenario;
+import org.apache.iotdb.tree.ScenarioGenerator;
+import org.apache.iotdb.tree.Shard;
+import org.apache.iotdb.tree.TabletFiller;
+import org.apache.iotdb.tree.TsFileGenerator;
+import org.apache.iotdb.utils.GeneratorConfig;
+import org.apache.iotdb.utils.JsonUtils;
+import org.apache.iotdb.value.ValueDistribution;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编码扫描：对 SWEEP_ENCODINGS × SWEEP_COMPRESSORS 的每个组合生成 SCENARIOS 中各场景的文件，输出文件大小、写入和读取的吞吐量
+ * <p>
+ * 吞吐量按编码前的原始大小计算，同一场景各组合的原始大小相同，压缩率不同的组合之间可以直接比较；文件大小只用于比较压缩率。
+ * 每个组合的文件在 POSITION/sweep/编码_压缩方式/ 下，保留下来供导入 IoTDB 比较；为了计时准确，场景依次在当前线程中执行，不分片
+ */
+public class EncodingSweep {
+    private EncodingSweep() {
+    }
+
+    /**
+     * 执行扫描，结果打印到控制台并写入 POSITION/sweep/sweep.json
+     */
+    public static void run(GeneratorConfig config) {
+        List<String> encodings = config.getSweepEncodings().isEmpty()
+                ? Collections.singletonList(config.getValue("ENCODING")) : config.getSweepEncodings();
+        List<String> compressors = config.getSweepCompressors().isEmpty()
+                ? Collections.singletonList(config.getValue("COMPRESSOR")) : config.getSweepCompressors();
+        File root = new File(config.getPosition(), "sweep");
+        List<Map<String, Object>> results = new ArrayList<>();
+        System.out.println("================ 编码扫描（组合数：" + encodings.size() * compressors.size()
+                + "，取值分布：" + ValueDistribution.format(config.getValueDistributions()) + "） ================");
+        for (String encoding : encodings) {
+            for (String compressor : compressors) {
+                File dir = new File(root, directoryName(encoding) + "_" + directoryName(compressor));
+                if (!dir.isDirectory() && !dir.mkdirs()) {
+                    throw new IllegalStateException("无法创建目录：" + dir);
+                }
+                GeneratorConfig combination = config.with(
+                        "POSITION=" + dir.getPath() + File.separator,
+                        "ENCODING=" + encoding,
+                        "COMPRESSOR=" + compressor,
+                        "SHARD_MODE=NONE",
+                        "VERIFY_MODE=NONE",
+                        "SERIES_MANIFEST=false");
+                for (TsFileGenerator generator : createGenerators(combination)) {
+                    Map<String, Object> result = measure(generator, combination);
+                    if (result == null) {
+                        continue;
+                    }
+                    result.put("encoding", encoding.isEmpty() ? "DEFAULT" : encoding);
+                    result.put("compressor", compressor.isEmpty() ? "DEFAULT" : compressor);
+                    result.put("schemaEncoding", combination.getSchemaEncoding().toString());
+                    System.out.printf("%-30s %-40s 文件大小：%.2f MB（原始 %.2f MB），写入：%.2f MB/s，%d 点/s，读取：%.2f MB/s，%d 点/s%n",
+                            generator.getScenario(), combination.getSchemaEncoding(), (long) result.get("fileSize") / 1048576.0,
+                            (long) result.get("rawSize") / 1048576.0, result.get("writeMBps"), result.get("writePointsPerSecond"),
+                            result.get("readMBps"), result.get("readPointsPerSecond"));
+                    results.add(result);
+                }
+            }
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", config.getSeed());
+        report.put("valueDistribution", ValueDistribution.format(config.getValueDistributions()));
+        report.put("results", results);
+        File reportFile = new File(root, "sweep.json");
+        try {
+            Files.write(reportFile.toPath(), JsonUtils.toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("扫描结果：" + reportFile.getPath());
+    }
+
+    /**
+     * 写入并全量读取一个场景的文件，空文件返回 null
+     */
+    private static Map<String, Object> measure(TsFileGenerator generator, GeneratorConfig config) {
+        long start = System.nanoTime();
+        generator.testWrite();
+        long writeNanos = Math.max(1, System.nanoTime() - start);
+        File file = new File(generator.getPath());
+        if (!file.exists()) {
+            return null;
+        }
+        start = System.nanoTime();
+        long readPoints = FileVerifier.scan(generator.getPath(), generator.getSeries(false))
+                + FileVerifier.scan(generator.getPath(), generator.getSeries(true));
+        long readNanos = Math.max(1, System.nanoTime() - start);
+        long fileSize = file.length();
+        // 编码前的原始大小：写入的单元格数按组折算成行，每行按数据类型和空值比例估算，与 SIZE 分片的估算相同
+        long rawSize = Math.round(generator.getPointNumber() / config.getDataTypes().length
+                * TabletFiller.rawBytesPerRow(config.getDataTypes(), config.getNullRatios()));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scenario", generator.getScenario());
+        result.put("file", generator.getPath());
+        result.put("fileSize", fileSize);
+        result.put("rawSize", rawSize);
+        result.put("compressionRatio", Math.round((double) rawSize / Math.max(1, fileSize) * 100) / 100.0);
+        result.put("pointNumber", generator.getPointNumber());
+        result.put("readPointNumber", readPoints);
+        result.put("writeMillis", writeNanos / 1000000);
+        result.put("readMillis", readNanos / 1000000);
+        result.put("writeMBps", megabytesPerSecond(rawSize, writeNanos));
+        result.put("readMBps", megabytesPerSecond(rawSize, readNanos));
+        // 读写点/s 都按写入的单元格数（含空值）计算，读取的非空值数只作为 readPointNumber 输出
+        result.put("writePointsPerSecond", Math.round(generator.getPointNumber() / (writeNanos / 1e9)));
+        result.put("readPointsPerSecond", Math.round(generator.getPointNumber() / (readNanos / 1e9)));
+        return result;
+    }
+
+    private static double megabytesPerSecond(long bytes, long nanos) {
+        return Math.round(bytes / 1048576.0 / (nanos / 1e9) * 100) / 100.0;
+    }
+
+    private static List<TsFileGenerator> createGenerators(GeneratorConfig config) {
+        List<TsFileGenerator> generators = new ArrayList<>(config.getScenarios().size());
+        for (Scenario scenario : config.getScenarios()) {
+            generators.add(new ScenarioGenerator(config, scenario, Shard.NONE));
+        }
+        return generators;
+    }
+
+    /**
+     * 组合对应的目录名，为空时为 DEFAULT
+     */
+    private static String directoryName(String value) {
+        return value.trim().isEmpty() ? "DEFAULT" : value.trim().toUpperCase().replaceAll("[^A-Z0-9]+", "-");
+    }
+}
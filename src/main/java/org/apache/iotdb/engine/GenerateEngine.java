@@ -0,0 +1,327 @@
+package org.apache.iotdb.engine;
+
+import org.apache.iotdb.tree.DeviceStats;
+import org.apache.iotdb.tree.FileVerifier;
+import org.apache.iotdb.tree.FlushStats;
+import org.apache.iotdb.tree.PhaseStats;
+import org.apache.iotdb.tree.PipelineStats;
+import org.apache.iotdb.tree.TsFileGenerator;
+import org.apache.iotdb.utils.JsonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行生成引擎：在线程池中同时执行多个生成器，每个生成器独占自己的 TsFileWriter 和目标文件
+ */
+public class GenerateEngine {
+    // 工作线程数
+    private final int workerNumber;
+    // 运行汇总文件，为 null 时不输出
+    private final File summaryFile;
+    // 待执行的生成器
+    private final List<TsFileGenerator> generators = new ArrayList<>();
+
+    /**
+     * @param workerNumber 工作线程数，小于等于0时使用CPU核数
+     */
+    public GenerateEngine(int workerNumber) {
+        this(workerNumber, null);
+    }
+
+    /**
+     * @param workerNumber 工作线程数，小于等于0时使用CPU核数
+     * @param summaryFile  全部完成后输出的运行汇总，为 null 时不输出
+     */
+    public GenerateEngine(int workerNumber, File summaryFile) {
+        this.workerNumber = workerNumber > 0 ? workerNumber : Runtime.getRuntime().availableProcessors();
+        this.summaryFile = summaryFile;
+    }
+
+    public int getWorkerNumber() {
+        return workerNumber;
+    }
+
+    /**
+     * 添加生成器
+     */
+    public void submit(TsFileGenerator generator) {
+        generators.add(generator);
+    }
+
+    /**
+     * 执行所有生成器（先写后读），全部完成后输出各场景的吞吐量；有文件校验失败时在输出报告和清单后抛出 IllegalStateException，
+     * 进程以非0状态退出
+     */
+    public void run() {
+        ExecutorService executor = Executors.newFixedThreadPool(workerNumber, new WorkerThreadFactory());
+        List<Future<TaskResult>> futures = new ArrayList<>(generators.size());
+        long start = System.nanoTime();
+        try {
+            for (TsFileGenerator generator : generators) {
+                futures.add(executor.submit(() -> execute(generator)));
+            }
+            // 按场景汇总
+            Map<String, ScenarioReport> reports = new LinkedHashMap<>();
+            for (Future<TaskResult> future : futures) {
+                TaskResult result = future.get();
+                reports.computeIfAbsent(result.scenario, ScenarioReport::new).add(result);
+            }
+            long elapsed = System.nanoTime() - start;
+            printReport(reports, elapsed);
+            for (ScenarioReport report : reports.values()) {
+                writeManifest(report);
+            }
+            if (summaryFile != null) {
+                writeSummary(reports, elapsed);
+            }
+            checkVerifyResults(reports);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 汇总各文件的校验结果，有不一致的序列时抛出异常
+     */
+    private void checkVerifyResults(Map<String, ScenarioReport> reports) {
+        List<String> failedFiles = new ArrayList<>();
+        for (ScenarioReport report : reports.values()) {
+            failedFiles.addAll(report.failedFiles);
+        }
+        if (!failedFiles.isEmpty()) {
+            throw new IllegalStateException("校验失败的文件（" + failedFiles.size() + " 个）：" + String.join("，", failedFiles));
+        }
+    }
+
+    /**
+     * 执行单个生成器
+     */
+    private TaskResult execute(TsFileGenerator generator) {
+        TaskResult result = new TaskResult(generator.getScenario());
+        result.startTime = System.nanoTime();
+        generator.testWrite();
+        result.writeEndTime = System.nanoTime();
+        // 空分片不会生成文件
+        File file = new File(generator.getPath());
+        if (!file.exists()) {
+            return result;
+        }
+        generator.testReader();
+        result.pointNumber = generator.getPointNumber();
+        result.fileSize = file.length();
+        result.flushStats = generator.getFlushStats();
+        result.pipelineStats = generator.getPipelineStats();
+        result.phaseStats = generator.getPhaseStats();
+        result.deviceStats = generator.getDeviceStats();
+        result.verifyResult = generator.getVerifyResult();
+        result.manifest = generator.getManifest();
+        result.manifest.put("pointNumber", result.pointNumber);
+        result.manifest.put("fileSize", result.fileSize);
+        return result;
+    }
+
+    /**
+     * 分片时在tsfile所在目录为每个场景输出清单，列出每个分片文件包含的设备、序列和时间范围，便于并行load
+     */
+    private void writeManifest(ScenarioReport report) {
+        if (report.manifests.isEmpty() || "NONE".equals(report.manifests.get(0).get("shardMode"))) {
+            return;
+        }
+        File dir = new File(String.valueOf(report.manifests.get(0).get("file"))).getAbsoluteFile().getParentFile();
+        File manifestFile = new File(dir, "TreeTsFileV3_" + report.scenario + ".manifest.json");
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("scenario", report.scenario);
+        manifest.put("shards", report.manifests);
+        try {
+            Files.write(manifestFile.toPath(), JsonUtils.toJson(manifest).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("分片清单：" + manifestFile.getPath());
+    }
+
+    /**
+     * 输出运行汇总：各场景的文件数、数据点数、文件大小、吞吐量、刷盘统计和分阶段统计，以及全部场景的合计
+     */
+    private void writeSummary(Map<String, ScenarioReport> reports, long elapsed) {
+        List<Map<String, Object>> scenarios = new ArrayList<>(reports.size());
+        PhaseStats totalPhaseStats = new PhaseStats();
+        long totalPoints = 0;
+        long totalSize = 0;
+        for (ScenarioReport report : reports.values()) {
+            double seconds = report.getWriteNanos() / 1e9;
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("scenario", report.scenario);
+            scenario.put("fileNumber", report.fileNumber);
+            scenario.put("pointNumber", report.pointNumber);
+            scenario.put("fileSize", report.fileSize);
+            scenario.put("writeMillis", report.getWriteNanos() / 1000000);
+            scenario.put("pointsPerSecond", Math.round(report.pointNumber / seconds));
+            scenario.put("megabytesPerSecond", Math.round(report.fileSize / 1048576.0 / seconds * 100) / 100.0);
+            scenario.put("flush", report.flushStats.toManifest());
+            if (report.pipelineStats.getProducerNumber() > 0) {
+                scenario.put("pipeline", report.pipelineStats.toManifest());
+            }
+            if (report.deviceStats.getDeviceNumber() > 0) {
+                scenario.put("devices", report.deviceStats.toManifest());
+            }
+            scenario.put("phases", report.phaseStats.toManifest());
+            scenario.put("verifyFailedFiles", report.failedFiles);
+            scenarios.add(scenario);
+            totalPhaseStats.add(report.phaseStats);
+            totalPoints += report.pointNumber;
+            totalSize += report.fileSize;
+        }
+        double seconds = elapsed / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("workerNumber", workerNumber);
+        summary.put("elapsedMillis", elapsed / 1000000);
+        summary.put("pointNumber", totalPoints);
+        summary.put("fileSize", totalSize);
+        summary.put("pointsPerSecond", Math.round(totalPoints / seconds));
+        summary.put("megabytesPerSecond", Math.round(totalSize / 1048576.0 / seconds * 100) / 100.0);
+        summary.put("phases", totalPhaseStats.toManifest());
+        summary.put("scenarios", scenarios);
+        try {
+            Files.write(summaryFile.toPath(), JsonUtils.toJson(summary).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println("运行汇总：" + summaryFile.getPath());
+    }
+
+    /**
+     * 输出吞吐量报告
+     */
+    private void printReport(Map<String, ScenarioReport> reports, long elapsed) {
+        System.out.println("================ 生成报告（线程数：" + workerNumber + "） ================");
+        long totalPoints = 0;
+        long totalSize = 0;
+        for (ScenarioReport report : reports.values()) {
+            double seconds = report.getWriteNanos() / 1e9;
+            System.out.printf("%-30s 文件数：%d，数据点数：%d，文件大小：%.2f MB，写入耗时：%.3f s，%.0f 点/s，%.2f MB/s，刷盘：%d 次，平均 %.2f MB/次，刷盘耗时：%.3f s%n",
+                    report.scenario, report.fileNumber, report.pointNumber, report.fileSize / 1048576.0, seconds,
+                    report.pointNumber / seconds, report.fileSize / 1048576.0 / seconds,
+                    report.flushStats.getFlushCount(), report.flushStats.getAverageFlushBytes() / 1048576.0, report.flushStats.getFlushNanos() / 1e9);
+            if (report.flushStats.getSyncCount() > 0) {
+                System.out.printf("%-30s fsync：%d 次，耗时：%.3f s%n", "", report.flushStats.getSyncCount(), report.flushStats.getSyncNanos() / 1e9);
+            }
+            if (report.flushStats.getStallCount() > 0) {
+                System.out.printf("%-30s 等待后台写盘：%d 次，耗时：%.3f s（占写入耗时 %.1f%%）%n", "", report.flushStats.getStallCount(),
+                        report.flushStats.getStallNanos() / 1e9, report.flushStats.getStallNanos() * 100.0 / Math.max(1, report.getWriteNanos()));
+            }
+            if (report.pipelineStats.getProducerNumber() > 0) {
+                System.out.printf("%-30s %s%n", "", report.pipelineStats);
+            }
+            if (report.deviceStats.getDeviceNumber() > 0) {
+                System.out.printf("%-30s %s%n", "", report.deviceStats);
+            }
+            System.out.printf("%-30s %s%n", "", report.phaseStats);
+            totalPoints += report.pointNumber;
+            totalSize += report.fileSize;
+        }
+        double seconds = elapsed / 1e9;
+        System.out.printf("%-30s 数据点数：%d，文件大小：%.2f MB，总耗时：%.3f s，%.0f 点/s，%.2f MB/s%n",
+                "TOTAL", totalPoints, totalSize / 1048576.0, seconds, totalPoints / seconds, totalSize / 1048576.0 / seconds);
+    }
+
+    /**
+     * 单个生成器的执行结果
+     */
+    private static class TaskResult {
+        private final String scenario;
+        private long startTime;
+        private long writeEndTime;
+        private long pointNumber;
+        private long fileSize;
+        private FlushStats flushStats;
+        private PipelineStats pipelineStats;
+        private PhaseStats phaseStats;
+        private DeviceStats deviceStats;
+        private FileVerifier.Result verifyResult;
+        private Map<String, Object> manifest;
+
+        private TaskResult(String scenario) {
+            this.scenario = scenario;
+        }
+    }
+
+    /**
+     * 单个场景的汇总结果，写入耗时取该场景第一个任务开始到最后一个任务写完
+     */
+    private static class ScenarioReport {
+        private final String scenario;
+        private int fileNumber;
+        private long pointNumber;
+        private long fileSize;
+        private long startTime = Long.MAX_VALUE;
+        private long writeEndTime = Long.MIN_VALUE;
+        private final FlushStats flushStats = new FlushStats();
+        private final PipelineStats pipelineStats = new PipelineStats();
+        private final PhaseStats phaseStats;
+        private final DeviceStats deviceStats = new DeviceStats();
+        private final List<Map<String, Object>> manifests = new ArrayList<>();
+        // 校验失败的文件
+        private final List<String> failedFiles = new ArrayList<>();
+
+        private ScenarioReport(String scenario) {
+            this.scenario = scenario;
+            this.phaseStats = new PhaseStats(scenario);
+        }
+
+        private void add(TaskResult result) {
+            startTime = Math.min(startTime, result.startTime);
+            writeEndTime = Math.max(writeEndTime, result.writeEndTime);
+            if (result.manifest == null) {
+                return;
+            }
+            fileNumber++;
+            pointNumber += result.pointNumber;
+            fileSize += result.fileSize;
+            flushStats.add(result.flushStats);
+            pipelineStats.add(result.pipelineStats);
+            phaseStats.add(result.phaseStats);
+            deviceStats.add(result.deviceStats);
+            manifests.add(result.manifest);
+            if (result.verifyResult != null && !result.verifyResult.isPassed()) {
+                failedFiles.add(String.valueOf(result.manifest.get("file")));
+            }
+        }
+
+        private long getWriteNanos() {
+            return Math.max(1, writeEndTime - startTime);
+        }
+    }
+
+    /**
+     * 工作线程命名，便于排查
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "tsfile-generator-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
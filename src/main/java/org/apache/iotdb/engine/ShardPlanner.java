@@ -0,0 +1,54 @@
+package org.apache.iotdb.engine;
+
+import org.apache.iotdb.tree.Shard;
+import org.apache.iotdb.tree.TabletFiller;
+import org.apache.iotdb.utils.GeneratorConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 根据配置规划每个场景的分片
+ */
+public class ShardPlanner {
+    private ShardPlanner() {
+    }
+
+    /**
+     * 规划分片，不分片时只返回 Shard.NONE
+     */
+    public static List<Shard> plan(GeneratorConfig config) {
+        Shard.Mode mode = config.getShardMode();
+        int number;
+        switch (mode) {
+            case NONE:
+                number = 1;
+                break;
+            case SIZE:
+                number = estimateShardNumber(config);
+                break;
+            default:
+                number = config.getShardNumber();
+        }
+        List<Shard> shards = new ArrayList<>(number);
+        if (mode == Shard.Mode.NONE) {
+            shards.add(Shard.NONE);
+            return shards;
+        }
+        for (int index = 0; index < number; index++) {
+            shards.add(new Shard(mode, index, number));
+        }
+        return shards;
+    }
+
+    /**
+     * 按目标文件大小估算分片数
+     */
+    private static int estimateShardNumber(GeneratorConfig config) {
+        long units = (long) config.getLoop() * (config.getNonAlignedSchemasNumber() + config.getAlignedSchemasNumber());
+        // 含空值时每列只计非空的部分
+        double bytes = units * config.getRowNumber() * TabletFiller.rawBytesPerRow(config.getDataTypes(), config.getNullRatios());
+        long target = config.getShardTargetSize() * 1024 * 1024;
+        return (int) Math.max(1, Math.min(units, (long) Math.ceil(bytes / target)));
+    }
+}
@@ -0,0 +1,222 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.write.writer.TsFileOutput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 双缓冲的异步 TsFileOutput：写入线程写满一块直接内存缓冲区后交给后台线程写入 FileChannel，同时继续写另一块；
+ * 后台线程还没写完上一块时写入线程等待（背压），等待次数和耗时计入 FlushStats，force() 和 close() 等待最后一块写盘也计入
+ * <p>
+ * TsFileIOWriter 每个 chunk group 结束时都会调用 flush()，这里不等待写盘，数据留在缓冲区中直到写满；force() 和 close() 会等后台写完。
+ * sync 为 true 时 force() 会 fsync，syncInterval 大于0时后台线程每写入 syncInterval 字节 fsync 一次，不阻塞写入线程
+ */
+public class AsyncTsFileOutput extends OutputStream implements TsFileOutput {
+    private final FileChannel channel;
+    private final boolean sync;
+    private final long syncInterval;
+    private final FlushStats stats;
+    private final ExecutorService drainer;
+    // 写入线程正在写的缓冲区和后台线程正在写盘的缓冲区
+    private ByteBuffer active;
+    private ByteBuffer draining;
+    // 后台写盘任务，为 null 时没有正在写盘的缓冲区
+    private Future<?> pending;
+    // 写入线程已写入的字节数，即文件的逻辑长度
+    private long position;
+    // 上次 fsync 后写盘的字节数
+    private long unsyncedBytes;
+
+    public AsyncTsFileOutput(File file, int bufferSize, boolean sync, long syncInterval, FlushStats stats) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.sync = sync;
+        this.syncInterval = syncInterval;
+        this.stats = stats;
+        this.active = ByteBuffer.allocateDirect(bufferSize);
+        this.draining = ByteBuffer.allocateDirect(bufferSize);
+        this.drainer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tsfile-drainer-" + file.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 背压信号：后台线程仍在写盘，写满当前缓冲区时写入线程需要等待
+     */
+    public boolean isBackpressured() {
+        return pending != null && !pending.isDone();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write((byte) b);
+    }
+
+    @Override
+    public void write(byte b) throws IOException {
+        if (!active.hasRemaining()) {
+            swap();
+        }
+        active.put(b);
+        position++;
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        write(ByteBuffer.wrap(b, off, len));
+    }
+
+    @Override
+    public void write(ByteBuffer source) throws IOException {
+        position += source.remaining();
+        while (source.hasRemaining()) {
+            if (!active.hasRemaining()) {
+                swap();
+            }
+            int n = Math.min(active.remaining(), source.remaining());
+            ByteBuffer slice = source.duplicate();
+            slice.limit(slice.position() + n);
+            active.put(slice);
+            source.position(source.position() + n);
+        }
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public OutputStream wrapAsStream() {
+        return this;
+    }
+
+    /**
+     * 不等待写盘，见类注释
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void truncate(long size) throws IOException {
+        drainAll();
+        channel.truncate(size);
+        channel.position(size);
+        position = size;
+    }
+
+    @Override
+    public void force() throws IOException {
+        drainAll();
+        // 后台线程已空闲，直接在写入线程中 fsync
+        if (sync) {
+            sync();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            drainAll();
+        } finally {
+            drainer.shutdownNow();
+            channel.close();
+        }
+    }
+
+    /**
+     * 把写满的缓冲区交给后台线程，换另一块继续写入
+     */
+    private void swap() throws IOException {
+        await();
+        ByteBuffer full = active;
+        active = draining;
+        draining = full;
+        full.flip();
+        submit(() -> {
+            long bytes = full.remaining();
+            while (full.hasRemaining()) {
+                channel.write(full);
+            }
+            full.clear();
+            unsyncedBytes += bytes;
+            if (syncInterval > 0 && unsyncedBytes >= syncInterval) {
+                sync();
+            }
+        });
+    }
+
+    /**
+     * 把当前缓冲区也写盘，并等待后台线程写完
+     */
+    private void drainAll() throws IOException {
+        if (active.position() > 0) {
+            swap();
+        }
+        await();
+    }
+
+    private void submit(DrainTask task) {
+        pending = drainer.submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 等待后台写盘完成，需要等待时记录一次背压
+     */
+    private void await() throws IOException {
+        if (pending == null) {
+            return;
+        }
+        long start = pending.isDone() ? 0 : System.nanoTime();
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待后台写盘时被中断", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            pending = null;
+        }
+        if (start != 0) {
+            stats.recordStall(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * fsync，unsyncedBytes 只在后台线程空闲时由写入线程访问
+     */
+    private void sync() throws IOException {
+        long start = System.nanoTime();
+        channel.force(false);
+        stats.recordSync(System.nanoTime() - start);
+        unsyncedBytes = 0;
+    }
+
+    private interface DrainTask {
+        void run() throws IOException;
+    }
+}
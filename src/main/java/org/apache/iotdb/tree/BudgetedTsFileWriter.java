@@ -0,0 +1,340 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 带内存预算的 TsFileWriter：按写入的 Tablet 估算缓冲的字节数（变长类型按实际长度计算），达到预算时主动刷盘
+ * <p>
+ * TsFileWriter 自身只在 chunk group 达到 TSFileConfig 中的阈值时才刷盘，这里在此之前按预算提前刷盘，并统计刷盘次数、字节数和耗时
+ */
+public class BudgetedTsFileWriter implements AutoCloseable {
+    private final TsFileWriter writer;
+    // 缓冲的内存预算（字节），小于等于0时只由 TsFileWriter 自己决定何时刷盘
+    private final long memoryBudget;
+    // chunk 元数据的内存预算（字节），小于等于0时不转存
+    private final long metadataBudget;
+    // 上次刷盘后写入的估算字节数
+    private long bufferedBytes;
+    // 刷盘统计，fsync 由输出记录到同一个统计中
+    private final FlushStats flushStats;
+    // 写入时累计的序列校验和，为 null 时不计算
+    private SeriesChecksums checksums;
+    // 多线程编码器，为 null 时由 TsFileWriter 在写入线程中编码
+    private ParallelChunkEncoder encoder;
+    // 是否允许乱序批次
+    private boolean outOfOrder;
+    // 注册、写入、刷盘和关闭的分阶段统计
+    private PhaseStats phaseStats = new PhaseStats();
+
+    public BudgetedTsFileWriter(File file, long memoryBudget) throws IOException {
+        this(file, memoryBudget, 0, OutputBackend.DEFAULT);
+    }
+
+    /**
+     * metadataBudget 大于0时，内存中的 chunk 元数据超过该字节数后由 flushChunkMetadata 转存到 文件名.meta 临时文件，关闭时再读回生成索引
+     */
+    public BudgetedTsFileWriter(File file, long memoryBudget, long metadataBudget) throws IOException {
+        this(file, memoryBudget, metadataBudget, OutputBackend.DEFAULT);
+    }
+
+    /**
+     * 按 output 的输出方式和 fsync 策略写入 file
+     */
+    public BudgetedTsFileWriter(File file, long memoryBudget, long metadataBudget, OutputBackend output) throws IOException {
+        this(file, memoryBudget, metadataBudget, output, new FlushStats());
+    }
+
+    public BudgetedTsFileWriter(TsFileWriter writer, long memoryBudget) {
+        this(writer, memoryBudget, 0, new FlushStats());
+    }
+
+    private BudgetedTsFileWriter(File file, long memoryBudget, long metadataBudget, OutputBackend output, FlushStats flushStats)
+            throws IOException {
+        this(new TsFileWriter(output.createIOWriter(file, metadataBudget, flushStats)), memoryBudget, metadataBudget, flushStats);
+    }
+
+    private BudgetedTsFileWriter(TsFileWriter writer, long memoryBudget, long metadataBudget, FlushStats flushStats) {
+        this.writer = writer;
+        this.memoryBudget = memoryBudget;
+        this.metadataBudget = metadataBudget;
+        this.flushStats = flushStats;
+    }
+
+    /**
+     * 写入时同时累计每个序列的校验和，供 FileVerifier 读回比对
+     */
+    public void setChecksums(SeriesChecksums checksums) {
+        this.checksums = checksums;
+    }
+
+    /**
+     * 注册、写入、刷盘和关闭记录到生成器的分阶段统计中，与填充、读取合在一起
+     */
+    public void setPhaseStats(PhaseStats phaseStats) {
+        this.phaseStats = phaseStats;
+    }
+
+    /**
+     * 允许同一个序列写入比已写入的 chunk group 更早的数据（乱序批次）。TsFileWriter 默认拒绝乱序数据，且没有公开的开关，
+     * 这里通过反射打开它的 isUnseq 标记；同一个 chunk group 内仍然要求时间递增，乱序的批次需要单独刷盘
+     */
+    public void allowOutOfOrder() {
+        try {
+            Field field = TsFileWriter.class.getDeclaredField("isUnseq");
+            field.setAccessible(true);
+            field.setBoolean(writer, true);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("当前版本的 TsFileWriter 不支持写入乱序数据", e);
+        }
+        outOfOrder = true;
+        if (encoder != null) {
+            encoder.allowOutOfOrder();
+        }
+    }
+
+    /**
+     * 用 threadNumber 个线程并行编码、压缩各列，刷盘时按设备顺序把 chunk group 追加到同一个文件。
+     * 启用后数据不再经过 TsFileWriter 的写入路径，由编码器按 TsFileWriter 注册的序列检查设备、物理量和时间；
+     * TsFileWriter 仍负责注册序列和关闭时写入索引。TsFileWriter 没有公开注册的序列，这里通过反射读取它的 schema
+     */
+    public void enableParallelEncoding(int threadNumber) {
+        if (threadNumber > 0 && encoder == null) {
+            Schema schema;
+            try {
+                Field field = TsFileWriter.class.getDeclaredField("schema");
+                field.setAccessible(true);
+                schema = (Schema) field.get(writer);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("当前版本的 TsFileWriter 不支持多线程编码", e);
+            }
+            encoder = new ParallelChunkEncoder(writer.getIOWriter(), schema, threadNumber);
+            if (outOfOrder) {
+                encoder.allowOutOfOrder();
+            }
+        }
+    }
+
+    public void registerTimeseries(Path devicePath, MeasurementSchema schema) throws WriteProcessException {
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.REGISTER);
+        writer.registerTimeseries(devicePath, schema);
+        span.end(0, 0, 0);
+    }
+
+    public void registerAlignedTimeseries(Path devicePath, List<MeasurementSchema> schemas) throws WriteProcessException {
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.REGISTER);
+        writer.registerAlignedTimeseries(devicePath, schemas);
+        span.end(0, 0, 0);
+    }
+
+    /**
+     * 注册 schema 模板，注册过模板的设备共用模板中的 MeasurementSchema
+     */
+    public void registerSchemaTemplate(String templateName, List<MeasurementSchema> schemas, boolean aligned) {
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.REGISTER);
+        Map<String, MeasurementSchema> template = new LinkedHashMap<>();
+        for (MeasurementSchema schema : schemas) {
+            template.put(schema.getMeasurementId(), schema);
+        }
+        writer.registerSchemaTemplate(templateName, template, aligned);
+        span.end(0, 0, 0);
+    }
+
+    public void registerDevice(String deviceId, String templateName) throws WriteProcessException {
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.REGISTER);
+        writer.registerDevice(deviceId, templateName);
+        span.end(0, 0, 0);
+    }
+
+    /**
+     * 写入非对齐 Tablet
+     */
+    public void write(Tablet tablet) throws IOException, WriteProcessException {
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.WRITE);
+        if (encoder != null) {
+            encoder.write(tablet, false);
+        } else {
+            writer.write(tablet);
+        }
+        afterWrite(tablet, span);
+    }
+
+    /**
+     * 写入对齐 Tablet
+     */
+    public void writeAligned(Tablet tablet) throws IOException, WriteProcessException {
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.WRITE);
+        if (encoder != null) {
+            encoder.write(tablet, true);
+        } else {
+            writer.writeAligned(tablet);
+        }
+        afterWrite(tablet, span);
+    }
+
+    /**
+     * 写入阶段到这里结束，之后按预算触发的刷盘单独计时
+     */
+    private void afterWrite(Tablet tablet, PhaseStats.Span span) throws IOException {
+        if (checksums != null) {
+            checksums.update(tablet);
+        }
+        long bytes = estimateBytes(tablet);
+        span.end(tablet.rowSize, (long) tablet.rowSize * tablet.getSchemas().size(), bytes);
+        bufferedBytes += bytes;
+        if (memoryBudget > 0 && bufferedBytes >= memoryBudget) {
+            flush();
+        } else if (memoryBudget <= 0 && encoder != null
+                && bufferedBytes >= TSFileDescriptor.getInstance().getConfig().getGroupSizeInByte()) {
+            // 编码器绕过了 TsFileWriter 自身的刷盘阈值，没有预算时按同一阈值刷盘
+            flush();
+        }
+    }
+
+    /**
+     * 把缓冲的 chunk group 全部刷到文件
+     */
+    public void flush() throws IOException {
+        if (bufferedBytes == 0) {
+            return;
+        }
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.FLUSH);
+        if (encoder != null) {
+            encoder.flush();
+        } else {
+            writer.flushAllChunkGroups();
+        }
+        flushStats.record(bufferedBytes, span.end(0, 0, bufferedBytes));
+        bufferedBytes = 0;
+    }
+
+    /**
+     * 内存中的 chunk 元数据超过预算时转存到临时文件，返回是否发生了转存。只能在刷盘之后、且之前的设备都不会再写入时调用，
+     * 转存的元数据要求设备按字典序递增
+     */
+    public boolean flushChunkMetadata() throws IOException {
+        return metadataBudget > 0 && writer.getIOWriter().checkMetadataSizeAndMayFlush() > 0;
+    }
+
+    /**
+     * 已写完的序列的校验和转存到临时文件，未累计校验和或未启用转存时不做任何事；调用时机同 flushChunkMetadata
+     */
+    public void spillChecksums() throws IOException {
+        if (checksums != null) {
+            checksums.spill();
+        }
+    }
+
+    /**
+     * 关闭前的最后一次刷盘也计入统计，关闭阶段只包括写入索引
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (encoder != null) {
+                encoder.close();
+            }
+        }
+        PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.CLOSE);
+        writer.close();
+        span.end(0, 0, 0);
+    }
+
+    /**
+     * 出错时放弃写入：关闭编码线程池和输出，不刷盘也不写入索引，文件不完整
+     */
+    public void abort() throws IOException {
+        try {
+            if (encoder != null) {
+                encoder.close();
+            }
+        } finally {
+            writer.getIOWriter().close();
+        }
+    }
+
+    public FlushStats getFlushStats() {
+        return flushStats;
+    }
+
+    public PhaseStats getPhaseStats() {
+        return phaseStats;
+    }
+
+    public TsFileWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * 估算 Tablet 中非空数据点编码前的字节数：时间列每行8字节，定长类型按类型宽度，TEXT、STRING、BLOB 按实际长度加4字节长度
+     */
+    public static long estimateBytes(Tablet tablet) {
+        int rowSize = tablet.rowSize;
+        long bytes = 8L * rowSize;
+        List<MeasurementSchema> schemas = tablet.getSchemas();
+        for (int column = 0; column < schemas.size(); column++) {
+            BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[column];
+            switch (schemas.get(column).getType()) {
+                case BOOLEAN:
+                    bytes += nonNullNumber(bitMap, rowSize);
+                    break;
+                case INT32:
+                case FLOAT:
+                case DATE:
+                    bytes += 4L * nonNullNumber(bitMap, rowSize);
+                    break;
+                case INT64:
+                case DOUBLE:
+                case TIMESTAMP:
+                    bytes += 8L * nonNullNumber(bitMap, rowSize);
+                    break;
+                case TEXT:
+                case STRING:
+                case BLOB:
+                    Binary[] binaries = (Binary[]) tablet.values[column];
+                    for (int row = 0; row < rowSize; row++) {
+                        if ((bitMap == null || !bitMap.isMarked(row)) && binaries[row] != null) {
+                            bytes += 4 + binaries[row].getLength();
+                        }
+                    }
+                    break;
+                default:
+                    throw new UnsupportedOperationException("不支持的数据类型：" + schemas.get(column).getType());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 前 rowSize 行中的非空个数
+     */
+    private static int nonNullNumber(BitMap bitMap, int rowSize) {
+        if (bitMap == null) {
+            return rowSize;
+        }
+        int number = 0;
+        for (int row = 0; row < rowSize; row++) {
+            if (!bitMap.isMarked(row)) {
+                number++;
+            }
+        }
+        return number;
+    }
+}
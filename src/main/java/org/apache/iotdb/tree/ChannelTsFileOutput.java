@@ -0,0 +1,235 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.write.writer.TsFileOutput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于 FileChannel 的 TsFileOutput：CHANNEL 模式先写入直接内存缓冲区，满了再整块写入通道，超过缓冲区大小的数据直接写入；
+ * MMAP 模式按缓冲区大小逐个映射文件窗口（映射时文件随之预分配），关闭时截断到实际长度
+ * <p>
+ * sync 为 true 时 force() 会 fsync（TsFileIOWriter 在写完索引后调用），syncInterval 大于0时另外每写入 syncInterval 字节 fsync 一次；
+ * sync 为 false 时 force() 只把缓冲区写入通道。fsync 的次数和耗时计入 FlushStats
+ */
+public class ChannelTsFileOutput extends OutputStream implements TsFileOutput {
+    private final FileChannel channel;
+    private final boolean mapped;
+    private final int bufferSize;
+    private final boolean sync;
+    private final long syncInterval;
+    private final FlushStats stats;
+    // CHANNEL 模式的直接内存缓冲区，或 MMAP 模式当前映射的窗口
+    private ByteBuffer buffer;
+    // buffer 第一个字节在文件中的位置
+    private long bufferStart;
+    // 上次 fsync 后写入的字节数
+    private long unsyncedBytes;
+    // MMAP 模式上次 fsync 后写满的窗口
+    private final List<MappedByteBuffer> unsyncedWindows = new ArrayList<>();
+
+    public ChannelTsFileOutput(File file, boolean mapped, int bufferSize, boolean sync, long syncInterval, FlushStats stats)
+            throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.mapped = mapped;
+        this.bufferSize = bufferSize;
+        this.sync = sync;
+        this.syncInterval = syncInterval;
+        this.stats = stats;
+        this.buffer = mapped ? map(0) : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write((byte) b);
+    }
+
+    @Override
+    public void write(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put(b);
+        written(1);
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        write(ByteBuffer.wrap(b, off, len));
+    }
+
+    @Override
+    public void write(ByteBuffer source) throws IOException {
+        int length = source.remaining();
+        if (!mapped && length >= bufferSize) {
+            // 大块数据不经过缓冲区
+            drain();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            bufferStart += length;
+        } else {
+            while (source.hasRemaining()) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int n = Math.min(buffer.remaining(), source.remaining());
+                ByteBuffer slice = source.duplicate();
+                slice.limit(slice.position() + n);
+                buffer.put(slice);
+                source.position(source.position() + n);
+            }
+        }
+        written(length);
+    }
+
+    @Override
+    public long getPosition() {
+        return bufferStart + buffer.position();
+    }
+
+    @Override
+    public OutputStream wrapAsStream() {
+        return this;
+    }
+
+    /**
+     * CHANNEL 模式把缓冲区写入通道；MMAP 模式写入的数据已在页缓存中，不需要处理
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!mapped) {
+            drain();
+        }
+    }
+
+    @Override
+    public void truncate(long size) throws IOException {
+        if (mapped) {
+            // 保留的部分先落盘，再丢弃之后的窗口
+            if (sync) {
+                sync();
+            }
+            bufferStart = size;
+            channel.truncate(size);
+            buffer = map(size);
+        } else {
+            drain();
+            channel.truncate(size);
+            channel.position(size);
+            bufferStart = size;
+        }
+    }
+
+    @Override
+    public void force() throws IOException {
+        flush();
+        if (sync) {
+            sync();
+        }
+    }
+
+    /**
+     * MMAP 模式截断最后一个窗口预分配的部分，需要落盘时再 fsync 一次文件大小；映射要等 GC 时才释放，Linux 上截断不受影响
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (mapped) {
+                long size = getPosition();
+                if (sync && unsyncedBytes > 0) {
+                    forceWindows();
+                }
+                unsyncedWindows.clear();
+                channel.truncate(size);
+                if (sync) {
+                    long start = System.nanoTime();
+                    channel.force(false);
+                    stats.recordSync(System.nanoTime() - start);
+                }
+            } else {
+                drain();
+                if (sync && unsyncedBytes > 0) {
+                    sync();
+                }
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * 腾出缓冲区：CHANNEL 模式写入通道，MMAP 模式映射下一个窗口
+     */
+    private void drain() throws IOException {
+        if (mapped) {
+            if (buffer.position() == 0) {
+                return;
+            }
+            bufferStart += buffer.position();
+            if (sync) {
+                unsyncedWindows.add((MappedByteBuffer) buffer);
+            }
+            buffer = map(bufferStart);
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bufferStart += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private MappedByteBuffer map(long position) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, position, bufferSize);
+    }
+
+    /**
+     * 累计写入的字节数，达到 syncInterval 时 fsync
+     */
+    private void written(long bytes) throws IOException {
+        unsyncedBytes += bytes;
+        if (syncInterval > 0 && unsyncedBytes >= syncInterval) {
+            flush();
+            sync();
+        }
+    }
+
+    /**
+     * 把已写入的数据落盘，不包括文件元数据
+     */
+    private void sync() throws IOException {
+        long start = System.nanoTime();
+        if (mapped) {
+            forceWindows();
+        } else {
+            channel.force(false);
+        }
+        stats.recordSync(System.nanoTime() - start);
+        unsyncedBytes = 0;
+    }
+
+    private void forceWindows() {
+        for (MappedByteBuffer window : unsyncedWindows) {
+            window.force();
+        }
+        unsyncedWindows.clear();
+        ((MappedByteBuffer) buffer).force();
+    }
+}
@@ -0,0 +1,208 @@
+package org.apache.iotdb.tree;
+
+import org.apache.iotdb.utils.GeneratorConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 场景的设备布局：设备名、物理量名和 schema 的注册方式
+ * <p>
+ * SEPARATE 时每个 执行次数_时间序列编号 一个设备，SAME 时同类序列都在以前缀命名的同一个设备中；物理量名带 执行次数_时间序列编号 后缀，
+ * 逐个设备注册 schema。SEPARATE 且 DEVICE_BATCH_SIZE 大于0时为大规模设备模式：
+ * 非对齐、对齐设备各用一个 schema 模板，物理量名不带后缀，所有设备共用同一组 MeasurementSchema；设备名中的编号补零，写入顺序即设备名的字典序；
+ * 每写完 DEVICE_BATCH_SIZE 个设备刷盘一次，并把超出 CHUNK_METADATA_MEMORY_BUDGET 的 chunk 元数据和这批设备的序列校验和转存到临时文件。
+ * Tablet、chunk 缓冲、chunk 元数据和校验和都不随设备数增长，TsFileWriter 仍为每个设备保留设备名和最后写入时间等少量记录
+ */
+public class DeviceLayout {
+    private static final String NON_ALIGNED_TEMPLATE = "nonAligned";
+    private static final String ALIGNED_TEMPLATE = "aligned";
+
+    // 进度输出中的名称，如 NoSameDevice_NoSameTimeStamp_shard0
+    private final String name;
+    // 同类序列是否都在同一个设备中
+    private final boolean sameDevice;
+    private final String measurementName;
+    private final TSDataType[] dataTypes;
+    private final SchemaEncoding encoding;
+    private final int nonAlignedSchemasNumber;
+    private final int alignedSchemasNumber;
+    // 每批的设备数，0表示不使用大规模设备模式
+    private final int batchSize;
+    // 执行次数和时间序列编号补零后的位数
+    private final int timesWidth;
+    private final int nonAlignedWidth;
+    private final int alignedWidth;
+    // 模板中的 schema，大规模设备模式下所有设备共用
+    private final List<MeasurementSchema> templateSchemas;
+    private final DeviceStats stats = new DeviceStats();
+
+    // 当前 writer 已注册的模板
+    private final Set<String> registeredTemplates = new HashSet<>();
+    // 当前 writer 已写完的设备数和当前统计区间的开始时间
+    private long deviceNumber;
+    private long intervalStart;
+
+    public DeviceLayout(GeneratorConfig config, String name, boolean sameDevice) {
+        this.name = name;
+        this.sameDevice = sameDevice;
+        this.measurementName = config.getMeasurementName();
+        this.dataTypes = config.getDataTypes();
+        this.encoding = config.getSchemaEncoding();
+        this.nonAlignedSchemasNumber = config.getNonAlignedSchemasNumber();
+        this.alignedSchemasNumber = config.getAlignedSchemasNumber();
+        this.batchSize = sameDevice ? 0 : config.getDeviceBatchSize();
+        this.timesWidth = digits(config.getLoop() - 1);
+        this.nonAlignedWidth = digits(nonAlignedSchemasNumber - 1);
+        this.alignedWidth = digits(alignedSchemasNumber - 1);
+        this.templateSchemas = isBatched() ? createTemplateSchemas() : null;
+    }
+
+    /**
+     * 是否为大规模设备模式
+     */
+    public boolean isBatched() {
+        return batchSize > 0;
+    }
+
+    /**
+     * 序列编号对应的设备名、物理量名后缀 执行次数_时间序列编号，大规模设备模式下补零
+     */
+    public String getSuffix(int unit, boolean aligned) {
+        int schemasNumber = aligned ? alignedSchemasNumber : nonAlignedSchemasNumber;
+        int times = unit / schemasNumber;
+        int i = unit % schemasNumber;
+        if (!isBatched()) {
+            return times + "_" + i;
+        }
+        return pad(times, timesWidth) + "_" + pad(i, aligned ? alignedWidth : nonAlignedWidth);
+    }
+
+    /**
+     * 序列组所在的设备名
+     */
+    public String getDeviceName(String prefix, String suffix) {
+        return sameDevice ? prefix : prefix + "_" + suffix;
+    }
+
+    /**
+     * 清单中设备名的格式
+     */
+    public String getDevicePattern(String prefix) {
+        return sameDevice ? prefix : prefix + "_{times}_{i}";
+    }
+
+    /**
+     * 一组序列的 schema，大规模设备模式下为共用的模板 schema
+     */
+    public List<MeasurementSchema> createSchemas(String suffix) {
+        return isBatched() ? templateSchemas : TabletFiller.createSchemas(measurementName, suffix, dataTypes, encoding);
+    }
+
+    /**
+     * 设备中某个数据类型的物理量名
+     */
+    public String getMeasurement(TSDataType dataType, String suffix) {
+        return isBatched() ? measurementName + "_" + dataType.name() : measurementName + "_" + dataType.name() + "_" + suffix;
+    }
+
+    /**
+     * 清单中物理量名的格式
+     */
+    public String getMeasurementPattern() {
+        return isBatched() ? measurementName + "_{TYPE}" : measurementName + "_{TYPE}_{times}_{i}";
+    }
+
+    /**
+     * 开始向一个新的 writer 写入，清空已注册的模板
+     */
+    public void start() {
+        registeredTemplates.clear();
+        deviceNumber = 0;
+        intervalStart = System.nanoTime();
+    }
+
+    /**
+     * 在写入线程中注册设备：大规模设备模式下关联模板，否则逐个注册 schema
+     */
+    public void register(TabletPipeline pipeline, String deviceName, boolean aligned, List<MeasurementSchema> schemas)
+            throws IOException, WriteProcessException {
+        if (!isBatched()) {
+            Path devicePath = new Path(deviceName);
+            if (aligned) {
+                pipeline.execute(tsFileWriter -> tsFileWriter.registerAlignedTimeseries(devicePath, schemas));
+            } else {
+                pipeline.execute(tsFileWriter -> {
+                    for (MeasurementSchema schema : schemas) {
+                        tsFileWriter.registerTimeseries(devicePath, schema);
+                    }
+                });
+            }
+            return;
+        }
+        String template = aligned ? ALIGNED_TEMPLATE : NON_ALIGNED_TEMPLATE;
+        if (registeredTemplates.add(template)) {
+            pipeline.execute(tsFileWriter -> tsFileWriter.registerSchemaTemplate(template, templateSchemas, aligned));
+        }
+        pipeline.execute(tsFileWriter -> tsFileWriter.registerDevice(deviceName, template));
+    }
+
+    /**
+     * 一个设备的数据已全部提交；大规模设备模式下每 DEVICE_BATCH_SIZE 个设备刷盘一次，每 INTERVAL_DEVICES 个设备记录一次耗时
+     */
+    public void deviceWritten(TabletPipeline pipeline) throws IOException, WriteProcessException {
+        if (!isBatched()) {
+            return;
+        }
+        deviceNumber++;
+        stats.recordDevice();
+        if (deviceNumber % batchSize == 0) {
+            stats.recordBatch();
+            pipeline.execute(tsFileWriter -> {
+                tsFileWriter.flush();
+                if (tsFileWriter.flushChunkMetadata()) {
+                    stats.recordMetadataSpill();
+                }
+                tsFileWriter.spillChecksums();
+            });
+        }
+        if (deviceNumber % DeviceStats.INTERVAL_DEVICES == 0) {
+            long now = System.nanoTime();
+            stats.recordInterval(now - intervalStart);
+            System.out.printf("%s 已写入 %d 个设备，最近 %d 个耗时 %.3f s%n", name, deviceNumber, DeviceStats.INTERVAL_DEVICES, (now - intervalStart) / 1e9);
+            intervalStart = now;
+        }
+    }
+
+    public DeviceStats getStats() {
+        return stats;
+    }
+
+    private List<MeasurementSchema> createTemplateSchemas() {
+        List<MeasurementSchema> schemas = TabletFiller.createSchemas(measurementName, "", dataTypes, encoding);
+        // 去掉 createSchemas 拼接的后缀分隔符
+        for (int i = 0; i < schemas.size(); i++) {
+            schemas.set(i, encoding.createSchema(getMeasurement(dataTypes[i], ""), dataTypes[i]));
+        }
+        return schemas;
+    }
+
+    private static int digits(int value) {
+        return String.valueOf(Math.max(0, value)).length();
+    }
+
+    private static String pad(int value, int width) {
+        String text = String.valueOf(value);
+        StringBuilder builder = new StringBuilder(width);
+        for (int i = text.length(); i < width; i++) {
+            builder.append('0');
+        }
+        return builder.append(text).toString();
+    }
+}
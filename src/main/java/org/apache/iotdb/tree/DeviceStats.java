@@ -0,0 +1,95 @@
+package org.apache.iotdb.tree;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 大规模设备模式的统计：设备数、分批刷盘次数、chunk 元数据转存次数和每写完 INTERVAL_DEVICES 个设备的耗时，
+ * 用来观察耗时从哪里开始不再随设备数线性增长
+ */
+public class DeviceStats {
+    // 统计耗时的设备区间
+    public static final int INTERVAL_DEVICES = 10000;
+
+    // 写入的设备数
+    private long deviceNumber;
+    // 分批刷盘次数
+    private long batchNumber;
+    // chunk 元数据转存到临时文件的次数，在写入线程中更新
+    private volatile long metadataSpillNumber;
+    // 每 INTERVAL_DEVICES 个设备的耗时（纳秒）
+    private final List<Long> intervalNanos = new ArrayList<>();
+
+    void recordDevice() {
+        deviceNumber++;
+    }
+
+    void recordBatch() {
+        batchNumber++;
+    }
+
+    void recordMetadataSpill() {
+        metadataSpillNumber++;
+    }
+
+    void recordInterval(long nanos) {
+        intervalNanos.add(nanos);
+    }
+
+    /**
+     * 合并另一个统计结果，耗时区间依次拼接
+     */
+    public void add(DeviceStats other) {
+        deviceNumber += other.deviceNumber;
+        batchNumber += other.batchNumber;
+        metadataSpillNumber += other.metadataSpillNumber;
+        intervalNanos.addAll(other.intervalNanos);
+    }
+
+    public long getDeviceNumber() {
+        return deviceNumber;
+    }
+
+    public long getBatchNumber() {
+        return batchNumber;
+    }
+
+    public long getMetadataSpillNumber() {
+        return metadataSpillNumber;
+    }
+
+    /**
+     * 清单中的设备统计
+     */
+    public Map<String, Object> toManifest() {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("deviceNumber", deviceNumber);
+        manifest.put("batchNumber", batchNumber);
+        manifest.put("metadataSpillNumber", metadataSpillNumber);
+        List<Long> millis = new ArrayList<>(intervalNanos.size());
+        for (long nanos : intervalNanos) {
+            millis.add(nanos / 1000000);
+        }
+        manifest.put("millisPer" + INTERVAL_DEVICES + "Devices", millis);
+        return manifest;
+    }
+
+    @Override
+    public String toString() {
+        String result = String.format("大规模设备：设备数：%d，分批刷盘：%d 次，chunk 元数据转存：%d 次", deviceNumber, batchNumber, metadataSpillNumber);
+        if (intervalNanos.isEmpty()) {
+            return result;
+        }
+        long max = 0;
+        long total = 0;
+        for (long nanos : intervalNanos) {
+            max = Math.max(max, nanos);
+            total += nanos;
+        }
+        return result + String.format("，每 %d 个设备耗时：首个 %.3f s，最后一个 %.3f s，最慢 %.3f s，平均 %.3f s",
+                INTERVAL_DEVICES, intervalNanos.get(0) / 1e9, intervalNanos.get(intervalNanos.size() - 1) / 1e9,
+                max / 1e9, total / 1e9 / intervalNanos.size());
+    }
+}
@@ -0,0 +1,186 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Field;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 校验读取：按批流式读回文件中的全部序列，重新计算校验和并与写入时的结果比对
+ * <p>
+ * 每次只查询 BATCH_SIZE 个序列，内存占用与文件大小无关
+ */
+public class FileVerifier {
+
+    /**
+     * 读取模式
+     */
+    public enum Mode {
+        // 不读取
+        NONE,
+        // 打印当前分片第一个序列的查询结果
+        PRINT,
+        // 读回全部序列并比对写入时的校验和
+        CHECKSUM
+    }
+
+    // 每次查询的序列数
+    private static final int BATCH_SIZE = 64;
+    // 报告中最多列出的不一致序列数
+    private static final int MAX_REPORTED_MISMATCHES = 10;
+
+    private FileVerifier() {
+    }
+
+    /**
+     * 校验文件中的序列是否与写入时的校验和一致
+     */
+    public static Result verify(String path, SeriesChecksums expected) {
+        Result result = new Result();
+        long start = System.nanoTime();
+        List<SeriesChecksums.Checksum> batch = new ArrayList<>(BATCH_SIZE);
+        try (TsFileReader reader = new TsFileReader(new TsFileSequenceReader(path))) {
+            for (SeriesChecksums.Checksum checksum : expected.getChecksums()) {
+                // 全部为空值的序列在文件中没有数据，查询时会被 TsFileReader 去掉，返回的列与查询的序列对不上，不参与查询
+                if (checksum.getCount() == 0) {
+                    result.seriesNumber++;
+                    continue;
+                }
+                batch.add(checksum);
+                if (batch.size() == BATCH_SIZE) {
+                    verifyBatch(reader, batch, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                verifyBatch(reader, batch, result);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * 按批流式读取文件中的序列，不做比对，返回非空数据点数，供编码扫描测量读取速度
+     */
+    public static long scan(String path, List<Path> series) {
+        long pointNumber = 0;
+        try (TsFileReader reader = new TsFileReader(new TsFileSequenceReader(path))) {
+            for (int from = 0; from < series.size(); from += BATCH_SIZE) {
+                QueryDataSet dataSet = reader.query(QueryExpression.create(new ArrayList<>(series.subList(from, Math.min(from + BATCH_SIZE, series.size()))), null));
+                while (dataSet.hasNext()) {
+                    for (Field field : dataSet.next().getFields()) {
+                        if (field != null && field.getDataType() != null) {
+                            pointNumber++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return pointNumber;
+    }
+
+    /**
+     * 查询一批序列，流式累计校验和后比对
+     */
+    private static void verifyBatch(TsFileReader reader, List<SeriesChecksums.Checksum> batch, Result result) throws IOException {
+        List<Path> paths = new ArrayList<>(batch.size());
+        SeriesChecksums.Checksum[] actual = new SeriesChecksums.Checksum[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            SeriesChecksums.Checksum checksum = batch.get(i);
+            paths.add(new Path(checksum.getDevice(), checksum.getMeasurement(), true));
+            actual[i] = new SeriesChecksums.Checksum(checksum.getDevice(), checksum.getMeasurement(), checksum.getDataType());
+        }
+        QueryDataSet dataSet = reader.query(QueryExpression.create(paths, null));
+        while (dataSet.hasNext()) {
+            RowRecord record = dataSet.next();
+            List<Field> fields = record.getFields();
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (field != null && field.getDataType() != null) {
+                    actual[i].add(record.getTimestamp(), SeriesChecksums.hashField(actual[i].getDataType(), field));
+                }
+            }
+            result.rowNumber++;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            result.seriesNumber++;
+            result.pointNumber += actual[i].getCount();
+            if (!batch.get(i).matches(actual[i])) {
+                result.mismatchNumber++;
+                if (result.mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                    result.mismatches.add("期望 " + batch.get(i) + "，实际 " + actual[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 校验结果
+     */
+    public static class Result {
+        private long seriesNumber;
+        private long pointNumber;
+        // 各批查询返回的行数之和
+        private long rowNumber;
+        private long mismatchNumber;
+        private final List<String> mismatches = new ArrayList<>();
+        private long nanos;
+
+        public boolean isPassed() {
+            return mismatchNumber == 0;
+        }
+
+        public long getMismatchNumber() {
+            return mismatchNumber;
+        }
+
+        public long getPointNumber() {
+            return pointNumber;
+        }
+
+        public long getRowNumber() {
+            return rowNumber;
+        }
+
+        /**
+         * 清单中的校验结果
+         */
+        public Map<String, Object> toManifest() {
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("passed", isPassed());
+            manifest.put("seriesNumber", seriesNumber);
+            manifest.put("pointNumber", pointNumber);
+            manifest.put("rowNumber", rowNumber);
+            manifest.put("mismatchNumber", mismatchNumber);
+            manifest.put("mismatches", mismatches);
+            manifest.put("verifyMillis", nanos / 1000000);
+            return manifest;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = Math.max(1, nanos) / 1e9;
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("校验%s：序列数：%d，数据点数：%d，不一致序列数：%d，耗时：%.3f s，%.0f 行/s，%.0f 点/s",
+                    isPassed() ? "通过" : "失败", seriesNumber, pointNumber, mismatchNumber, seconds, rowNumber / seconds, pointNumber / seconds));
+            for (String mismatch : mismatches) {
+                builder.append(System.lineSeparator()).append("  ").append(mismatch);
+            }
+            return builder.toString();
+        }
+    }
+}
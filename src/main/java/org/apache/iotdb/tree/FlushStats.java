@@ -0,0 +1,120 @@
+package org.apache.iotdb.tree;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 刷盘统计：刷盘次数、每次刷盘的估算字节数和刷盘耗时，以及 fsync、异步输出等待写盘的次数和耗时
+ */
+public class FlushStats {
+    // 刷盘次数
+    private int flushCount;
+    // 累计刷盘的估算字节数
+    private long flushedBytes;
+    // 单次刷盘的最大估算字节数
+    private long maxFlushBytes;
+    // 累计刷盘耗时（纳秒）
+    private long flushNanos;
+    // fsync 次数和累计耗时（纳秒）
+    private int syncCount;
+    private long syncNanos;
+    // 异步输出中写入线程等待后台写盘的次数和累计耗时（纳秒）
+    private int stallCount;
+    private long stallNanos;
+
+    /**
+     * 记录一次刷盘
+     */
+    public void record(long bytes, long nanos) {
+        flushCount++;
+        flushedBytes += bytes;
+        maxFlushBytes = Math.max(maxFlushBytes, bytes);
+        flushNanos += nanos;
+    }
+
+    /**
+     * 记录一次 fsync
+     */
+    public void recordSync(long nanos) {
+        syncCount++;
+        syncNanos += nanos;
+    }
+
+    /**
+     * 记录一次等待后台写盘
+     */
+    public void recordStall(long nanos) {
+        stallCount++;
+        stallNanos += nanos;
+    }
+
+    /**
+     * 合并另一个统计结果
+     */
+    public void add(FlushStats other) {
+        flushCount += other.flushCount;
+        flushedBytes += other.flushedBytes;
+        maxFlushBytes = Math.max(maxFlushBytes, other.maxFlushBytes);
+        flushNanos += other.flushNanos;
+        syncCount += other.syncCount;
+        syncNanos += other.syncNanos;
+        stallCount += other.stallCount;
+        stallNanos += other.stallNanos;
+    }
+
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    public long getFlushedBytes() {
+        return flushedBytes;
+    }
+
+    public long getMaxFlushBytes() {
+        return maxFlushBytes;
+    }
+
+    public long getFlushNanos() {
+        return flushNanos;
+    }
+
+    public int getSyncCount() {
+        return syncCount;
+    }
+
+    public long getSyncNanos() {
+        return syncNanos;
+    }
+
+    public int getStallCount() {
+        return stallCount;
+    }
+
+    public long getStallNanos() {
+        return stallNanos;
+    }
+
+    /**
+     * 平均每次刷盘的估算字节数
+     */
+    public long getAverageFlushBytes() {
+        return flushCount == 0 ? 0 : flushedBytes / flushCount;
+    }
+
+    /**
+     * 清单中的刷盘统计
+     */
+    public Map<String, Object> toManifest() {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("flushCount", flushCount);
+        manifest.put("flushedBytes", flushedBytes);
+        manifest.put("averageFlushBytes", getAverageFlushBytes());
+        manifest.put("maxFlushBytes", maxFlushBytes);
+        manifest.put("flushMillis", flushNanos / 1000000);
+        manifest.put("syncCount", syncCount);
+        manifest.put("syncMillis", syncNanos / 1000000);
+        manifest.put("stallCount", stallCount);
+        manifest.put("stallMillis", stallNanos / 1000000);
+        return manifest;
+    }
+}
@@ -0,0 +1,142 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.write.writer.LocalTsFileOutput;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+import org.apache.tsfile.write.writer.TsFileOutput;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * TsFile 的输出方式和 fsync 策略，由 OUTPUT_MODE、OUTPUT_BUFFER_SIZE、FSYNC_POLICY、FSYNC_INTERVAL 配置
+ * <p>
+ * TsFileIOWriter 写完索引后总是调用 TsFileOutput.force()，默认输出在这里 fsync，即 STREAM + CLOSE 与原来的行为相同；
+ * NEVER 时 force() 只刷出缓冲区
+ */
+public final class OutputBackend {
+
+    /**
+     * 输出方式
+     */
+    public enum Mode {
+        // TsFileIOWriter 默认的 FileOutputStream 输出
+        STREAM,
+        // FileChannel 加直接内存缓冲区
+        CHANNEL,
+        // 按缓冲区大小逐个映射文件窗口
+        MMAP,
+        // FileChannel 加两块直接内存缓冲区，后台线程写盘
+        ASYNC
+    }
+
+    /**
+     * fsync 策略
+     */
+    public enum FsyncPolicy {
+        NEVER,
+        // 写完索引后一次，TsFile 的默认行为
+        CLOSE,
+        // 每写入 FSYNC_INTERVAL 字节一次，写完索引后再一次
+        INTERVAL
+    }
+
+    // TsFile 默认的输出方式
+    public static final OutputBackend DEFAULT = new OutputBackend(Mode.STREAM, 0, FsyncPolicy.CLOSE, 0);
+
+    private final Mode mode;
+    private final int bufferSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncInterval;
+
+    /**
+     * STREAM 方式只支持 NEVER 和 CLOSE
+     */
+    public OutputBackend(Mode mode, int bufferSize, FsyncPolicy fsyncPolicy, long fsyncInterval) {
+        if (mode != Mode.STREAM && bufferSize <= 0) {
+            throw new IllegalArgumentException(mode + " 方式的缓冲区大小必须大于0：" + bufferSize);
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            if (mode == Mode.STREAM) {
+                throw new IllegalArgumentException("STREAM 方式不支持按间隔 fsync，请使用 CHANNEL、MMAP 或 ASYNC");
+            }
+            if (fsyncInterval <= 0) {
+                throw new IllegalArgumentException("按间隔 fsync 时间隔必须大于0：" + fsyncInterval);
+            }
+        }
+        this.mode = mode;
+        this.bufferSize = bufferSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncInterval = fsyncInterval;
+    }
+
+    /**
+     * 创建写入 file 的 TsFileIOWriter；metadataBudget 大于0时 chunk 元数据超过该字节数后可以转存到 文件名.meta 临时文件
+     */
+    public TsFileIOWriter createIOWriter(File file, long metadataBudget, FlushStats stats) throws IOException {
+        TsFileOutput output;
+        if (mode == Mode.STREAM) {
+            output = new StreamTsFileOutput(new FileOutputStream(file), fsyncPolicy == FsyncPolicy.CLOSE, stats);
+        } else if (mode == Mode.ASYNC) {
+            output = new AsyncTsFileOutput(file, bufferSize, fsyncPolicy != FsyncPolicy.NEVER,
+                    fsyncPolicy == FsyncPolicy.INTERVAL ? fsyncInterval : 0, stats);
+        } else {
+            output = new ChannelTsFileOutput(file, mode == Mode.MMAP, bufferSize, fsyncPolicy != FsyncPolicy.NEVER,
+                    fsyncPolicy == FsyncPolicy.INTERVAL ? fsyncInterval : 0, stats);
+        }
+        return new OutputTsFileIOWriter(file, output, metadataBudget);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(mode.name());
+        if (mode != Mode.STREAM) {
+            builder.append('(').append(bufferSize >> 10).append(" KB)");
+        }
+        builder.append(", fsync=").append(fsyncPolicy);
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            builder.append('(').append(fsyncInterval >> 20).append(" MB)");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 默认的 FileOutputStream 输出，sync 为 false 时 force() 只刷出缓冲区
+     */
+    private static final class StreamTsFileOutput extends LocalTsFileOutput {
+        private final boolean sync;
+        private final FlushStats stats;
+
+        private StreamTsFileOutput(FileOutputStream outputStream, boolean sync, FlushStats stats) {
+            super(outputStream);
+            this.sync = sync;
+            this.stats = stats;
+        }
+
+        @Override
+        public void force() throws IOException {
+            if (!sync) {
+                flush();
+                return;
+            }
+            long start = System.nanoTime();
+            super.force();
+            stats.recordSync(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 使用自定义输出的 TsFileIOWriter。TsFileIOWriter(TsFileOutput) 不记录文件，chunk 元数据无法转存，这里和 TsFileIOWriter(File, long) 一样设置文件和临时文件
+     */
+    private static final class OutputTsFileIOWriter extends TsFileIOWriter {
+        private OutputTsFileIOWriter(File file, TsFileOutput output, long metadataBudget) throws IOException {
+            this.out = output;
+            this.file = file;
+            if (metadataBudget > 0) {
+                this.maxMetadataSize = metadataBudget;
+                this.chunkMetadataTempFile = new File(file.getAbsolutePath() + CHUNK_METADATA_TEMP_FILE_SUFFIX);
+            }
+            startFile();
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.exception.write.NoMeasurementException;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.PlainDeviceID;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.utils.DateUtils;
+import org.apache.tsfile.utils.MeasurementGroup;
+import org.apache.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.chunk.TimeChunkWriter;
+import org.apache.tsfile.write.chunk.ValueChunkWriter;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多线程编码：TsFileWriter 在调用线程中逐列编码、压缩，这里把一个 Tablet 的各列分给线程池，并行写入各自的 chunk writer；
+ * 刷盘时先并行封口最后一页（压缩），再在调用线程中按与 TsFileWriter 相同的设备顺序把 chunk group 依次追加到同一个 TsFileIOWriter，
+ * 对齐设备先写时间列 chunk 再按注册顺序写各值列 chunk
+ * <p>
+ * 非对齐列的分页规则与 TsFileWriter 相同；对齐设备的各列分别写入，封页的行由调用线程决定：各列并行写到串行写入时下一次检查页大小的行，
+ * 再在调用线程中按 TsFileWriter 的顺序检查各列的页大小，任一列超过阈值时所有列在同一行封页，与串行写入的文件逐字节相同。
+ * 写入前按 TsFileWriter 的规则检查设备和物理量已注册、时间严格递增。写入和刷盘都等线程池完成后才返回，Tablet 写完即可复用
+ */
+class ParallelChunkEncoder implements AutoCloseable {
+    private final TsFileIOWriter ioWriter;
+    // TsFileWriter 中注册的序列
+    private final Schema schema;
+    private final ExecutorService pool;
+    private final int threadNumber;
+    // 每页最多的点数
+    private final int pagePointNumber = TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+    // 时间列、值列下次检查页大小时的点数，是 TsFileWriter 内部的私有状态
+    private final Field timeNextCheck;
+    private final Field valueNextCheck;
+    // 上次刷盘后缓冲的 chunk group。TsFileWriter 用 HashMap 保存各设备的 chunk group，刷盘时清空后复用，
+    // 这里同样复用一个 HashMap，刷盘时设备的顺序与 TsFileWriter 相同
+    private final Map<IDeviceID, ChunkGroup> chunkGroups = new HashMap<>();
+    // 对齐设备和非对齐序列已写入的最大时间，刷盘后保留；允许乱序时每次刷盘后重新开始
+    private final Map<String, Long> alignedLastTimes = new HashMap<>();
+    private final Map<String, Map<String, Long>> nonAlignedLastTimes = new HashMap<>();
+    private boolean outOfOrder;
+
+    ParallelChunkEncoder(TsFileIOWriter ioWriter, Schema schema, int threadNumber) {
+        this.ioWriter = ioWriter;
+        this.schema = schema;
+        this.threadNumber = threadNumber;
+        this.timeNextCheck = nextCheckField(TimeChunkWriter.class);
+        this.valueNextCheck = nextCheckField(ValueChunkWriter.class);
+        AtomicInteger index = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threadNumber, runnable -> {
+            Thread thread = new Thread(runnable, "tsfile-encoder-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Field nextCheckField(Class<?> writerClass) {
+        try {
+            Field field = writerClass.getDeclaredField("valueCountInOnePageForNextCheck");
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("当前版本的 " + writerClass.getSimpleName() + " 不支持多线程编码", e);
+        }
+    }
+
+    /**
+     * 与 TsFileWriter 允许乱序时相同：不同 chunk group 之间允许乱序，刷盘后时间检查重新开始
+     */
+    void allowOutOfOrder() {
+        outOfOrder = true;
+    }
+
+    /**
+     * 编码一个 Tablet 的前 rowSize 行
+     */
+    void write(Tablet tablet, boolean aligned) throws IOException, WriteProcessException {
+        checkRegistered(tablet, aligned);
+        IDeviceID deviceId = new PlainDeviceID(tablet.deviceId);
+        ChunkGroup group = chunkGroups.get(deviceId);
+        if (group == null) {
+            group = new ChunkGroup(aligned);
+            chunkGroups.put(deviceId, group);
+        } else if (group.aligned != aligned) {
+            throw new IllegalStateException("设备 " + tablet.deviceId + " 不能同时写入对齐和非对齐数据");
+        }
+        if (aligned) {
+            checkAlignedTimes(tablet);
+            writeAligned(group, tablet);
+        } else {
+            checkNonAlignedTimes(tablet);
+            writeNonAligned(group, tablet);
+        }
+    }
+
+    /**
+     * 与 TsFileWriter 相同：设备需要已注册（未注册且只有一个 schema 模板时使用该模板），对齐方式一致，Tablet 中的物理量都已注册
+     */
+    private void checkRegistered(Tablet tablet, boolean aligned) throws NoMeasurementException {
+        Path devicePath = new Path(tablet.deviceId);
+        MeasurementGroup measurementGroup;
+        if (schema.containsDevice(devicePath)) {
+            measurementGroup = schema.getSeriesSchema(devicePath);
+        } else if (schema.getSchemaTemplates() != null && schema.getSchemaTemplates().size() == 1) {
+            measurementGroup = schema.getSchemaTemplates().values().iterator().next();
+        } else {
+            throw new NoMeasurementException("设备 " + tablet.deviceId + " 没有注册");
+        }
+        if (measurementGroup.isAligned() != aligned) {
+            throw new NoMeasurementException("设备 " + tablet.deviceId + " 注册为" + (aligned ? "非对齐" : "对齐") + "序列");
+        }
+        Map<String, MeasurementSchema> registered = measurementGroup.getMeasurementSchemaMap();
+        for (MeasurementSchema measurementSchema : tablet.getSchemas()) {
+            if (!registered.containsKey(measurementSchema.getMeasurementId())) {
+                throw new NoMeasurementException("设备 " + tablet.deviceId + " 的物理量 " + measurementSchema.getMeasurementId() + " 没有注册");
+            }
+        }
+    }
+
+    /**
+     * 对齐设备的每一行时间都要大于该设备已写入的时间
+     */
+    private void checkAlignedTimes(Tablet tablet) throws WriteProcessException {
+        long lastTime = alignedLastTimes.getOrDefault(tablet.deviceId, -1L);
+        for (int row = 0; row < tablet.rowSize; row++) {
+            long time = tablet.timestamps[row];
+            if (time <= lastTime) {
+                throw new WriteProcessException("设备 " + tablet.deviceId + " 的时间 " + time + " 不晚于已写入的 " + lastTime);
+            }
+            lastTime = time;
+        }
+        alignedLastTimes.put(tablet.deviceId, lastTime);
+    }
+
+    /**
+     * 非对齐序列的每个非空值的时间都要大于该序列已写入的时间
+     */
+    private void checkNonAlignedTimes(Tablet tablet) throws WriteProcessException {
+        Map<String, Long> lastTimes = nonAlignedLastTimes.computeIfAbsent(tablet.deviceId, device -> new HashMap<>());
+        List<MeasurementSchema> schemas = tablet.getSchemas();
+        for (int column = 0; column < schemas.size(); column++) {
+            String measurementId = schemas.get(column).getMeasurementId();
+            BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[column];
+            long lastTime = lastTimes.getOrDefault(measurementId, -1L);
+            for (int row = 0; row < tablet.rowSize; row++) {
+                if (bitMap != null && bitMap.isMarked(row)) {
+                    continue;
+                }
+                long time = tablet.timestamps[row];
+                if (time <= lastTime) {
+                    throw new WriteProcessException("序列 " + tablet.deviceId + "." + measurementId + " 的时间 " + time
+                            + " 不晚于已写入的 " + lastTime);
+                }
+                lastTime = time;
+            }
+            lastTimes.put(measurementId, lastTime);
+        }
+    }
+
+    private void writeNonAligned(ChunkGroup group, Tablet tablet) throws IOException {
+        List<MeasurementSchema> schemas = tablet.getSchemas();
+        ChunkWriterImpl[] writers = new ChunkWriterImpl[schemas.size()];
+        for (int column = 0; column < writers.length; column++) {
+            MeasurementSchema schema = schemas.get(column);
+            ChunkWriterImpl writer = group.chunkWriters.get(schema.getMeasurementId());
+            if (writer == null) {
+                writer = new ChunkWriterImpl(schema);
+                group.chunkWriters.put(schema.getMeasurementId(), writer);
+            }
+            writers[column] = writer;
+        }
+        runColumns(writers.length, column -> writeColumn(writers[column], tablet, column));
+    }
+
+    private void writeAligned(ChunkGroup group, Tablet tablet) throws IOException {
+        List<MeasurementSchema> schemas = tablet.getSchemas();
+        if (group.alignedWriter == null) {
+            group.alignedWriter = new AlignedChunkWriterImpl(new ArrayList<IMeasurementSchema>(schemas));
+            group.alignedSchemas = schemas;
+        } else if (!sameMeasurements(group.alignedSchemas, schemas)) {
+            throw new IllegalStateException("对齐设备 " + tablet.deviceId + " 的物理量在两次刷盘之间发生了变化");
+        }
+        TimeChunkWriter timeWriter = group.alignedWriter.getTimeChunkWriter();
+        List<ValueChunkWriter> valueWriters = group.alignedWriter.getValueChunkWriterList();
+        int from = 0;
+        while (from < tablet.rowSize) {
+            // 在下一次检查页大小之前不会封页，各列并行写到这一行；第 0 列为时间列，其余为值列
+            int start = from;
+            int end = nextCheckRow(timeWriter, valueWriters, tablet, from);
+            runColumns(valueWriters.size() + 1, column -> {
+                if (column == 0) {
+                    writeTimeColumn(timeWriter, tablet, start, end);
+                } else {
+                    writeValueColumn(valueWriters.get(column - 1), tablet, column - 1, start, end);
+                }
+            });
+            if (checkPageSize(timeWriter, valueWriters)) {
+                runColumns(valueWriters.size() + 1, column -> {
+                    if (column == 0) {
+                        timeWriter.sealCurrentPage();
+                    } else {
+                        valueWriters.get(column - 1).sealCurrentPage();
+                    }
+                });
+            }
+            from = end;
+        }
+    }
+
+    /**
+     * 从 from 行开始，返回串行写入时下一次检查页大小的行（不含）：时间列的点数达到 maxNumberOfPointsInPage 或下次检查的点数，
+     * 或某个值列的非空值数达到它下次检查的点数，至少写入一行
+     */
+    private int nextCheckRow(TimeChunkWriter timeWriter, List<ValueChunkWriter> valueWriters, Tablet tablet, int from) {
+        long timeRows = Math.min(pagePointNumber, nextCheck(timeNextCheck, timeWriter)) - timeWriter.getPageWriter().getPointNumber();
+        int end = from + (int) Math.max(1, Math.min(tablet.rowSize - from, timeRows));
+        for (int column = 0; column < valueWriters.size() && end > from + 1; column++) {
+            ValueChunkWriter valueWriter = valueWriters.get(column);
+            long points = nextCheck(valueNextCheck, valueWriter) - valueWriter.getPageWriter().getPointNumber();
+            if (points <= 0) {
+                return from + 1;
+            }
+            BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[column];
+            if (bitMap == null) {
+                end = (int) Math.min(end, from + points);
+                continue;
+            }
+            // 空值不计入值列的点数，数到第 points 个非空值
+            for (int row = from; row < end; row++) {
+                if (!bitMap.isMarked(row) && --points == 0) {
+                    end = row + 1;
+                    break;
+                }
+            }
+        }
+        return end;
+    }
+
+    private static int nextCheck(Field field, Object writer) {
+        try {
+            return field.getInt(writer);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 与 AlignedChunkGroupWriterImpl 相同：先检查时间列，再按顺序检查各值列，任一列需要封页时不再检查后面的列
+     */
+    private static boolean checkPageSize(TimeChunkWriter timeWriter, List<ValueChunkWriter> valueWriters) {
+        if (timeWriter.checkPageSizeAndMayOpenANewPage()) {
+            return true;
+        }
+        for (ValueChunkWriter valueWriter : valueWriters) {
+            if (valueWriter.checkPageSizeAndMayOpenANewPage()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 把缓冲的 chunk group 全部追加到文件，返回刷出的 chunk group 数
+     */
+    int flush() throws IOException {
+        if (chunkGroups.isEmpty()) {
+            return 0;
+        }
+        // 封口最后一页需要压缩，同样分给线程池
+        List<Runnable> seals = new ArrayList<>();
+        for (ChunkGroup group : chunkGroups.values()) {
+            if (group.aligned) {
+                AlignedChunkWriterImpl writer = group.alignedWriter;
+                seals.add(() -> writer.getTimeChunkWriter().sealCurrentPage());
+                for (ValueChunkWriter valueWriter : writer.getValueChunkWriterList()) {
+                    seals.add(valueWriter::sealCurrentPage);
+                }
+            } else {
+                for (ChunkWriterImpl writer : group.chunkWriters.values()) {
+                    seals.add(writer::sealCurrentPage);
+                }
+            }
+        }
+        runColumns(seals.size(), index -> seals.get(index).run());
+        for (Map.Entry<IDeviceID, ChunkGroup> entry : chunkGroups.entrySet()) {
+            ChunkGroup group = entry.getValue();
+            ioWriter.startChunkGroup(entry.getKey());
+            if (group.aligned) {
+                group.alignedWriter.writeToFileWriter(ioWriter);
+            } else {
+                for (ChunkWriterImpl writer : group.chunkWriters.values()) {
+                    writer.writeToFileWriter(ioWriter);
+                }
+            }
+            ioWriter.endChunkGroup();
+        }
+        int number = chunkGroups.size();
+        chunkGroups.clear();
+        if (outOfOrder) {
+            alignedLastTimes.clear();
+            nonAlignedLastTimes.clear();
+        }
+        return number;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 把 [0, columnNumber) 列均分为 threadNumber 段并行执行，等待全部完成；任一列失败时抛出它的异常
+     */
+    private void runColumns(int columnNumber, ColumnTask task) throws IOException {
+        int sliceNumber = Math.min(threadNumber, columnNumber);
+        if (sliceNumber <= 1) {
+            for (int column = 0; column < columnNumber; column++) {
+                task.run(column);
+            }
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(sliceNumber);
+        for (int slice = 0; slice < sliceNumber; slice++) {
+            int first = columnNumber * slice / sliceNumber;
+            int last = columnNumber * (slice + 1) / sliceNumber;
+            futures.add(pool.submit(() -> {
+                for (int column = first; column < last; column++) {
+                    task.run(column);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待编码线程时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * 写入非对齐的一列，空值不写入
+     */
+    private static void writeColumn(ChunkWriterImpl writer, Tablet tablet, int column) {
+        long[] timestamps = tablet.timestamps;
+        BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[column];
+        Object values = tablet.values[column];
+        int rowSize = tablet.rowSize;
+        switch (writer.getDataType()) {
+            case BOOLEAN:
+                for (int row = 0; row < rowSize; row++) {
+                    if (bitMap == null || !bitMap.isMarked(row)) {
+                        writer.write(timestamps[row], ((boolean[]) values)[row]);
+                    }
+                }
+                break;
+            case INT32:
+                for (int row = 0; row < rowSize; row++) {
+                    if (bitMap == null || !bitMap.isMarked(row)) {
+                        writer.write(timestamps[row], ((int[]) values)[row]);
+                    }
+                }
+                break;
+            case DATE:
+                for (int row = 0; row < rowSize; row++) {
+                    if (bitMap == null || !bitMap.isMarked(row)) {
+                        writer.write(timestamps[row], (int) DateUtils.parseDateExpressionToInt(((LocalDate[]) values)[row]));
+                    }
+                }
+                break;
+            case INT64:
+            case TIMESTAMP:
+                for (int row = 0; row < rowSize; row++) {
+                    if (bitMap == null || !bitMap.isMarked(row)) {
+                        writer.write(timestamps[row], ((long[]) values)[row]);
+                    }
+                }
+                break;
+            case FLOAT:
+                for (int row = 0; row < rowSize; row++) {
+                    if (bitMap == null || !bitMap.isMarked(row)) {
+                        writer.write(timestamps[row], ((float[]) values)[row]);
+                    }
+                }
+                break;
+            case DOUBLE:
+                for (int row = 0; row < rowSize; row++) {
+                    if (bitMap == null || !bitMap.isMarked(row)) {
+                        writer.write(timestamps[row], ((double[]) values)[row]);
+                    }
+                }
+                break;
+            case TEXT:
+            case STRING:
+            case BLOB:
+                for (int row = 0; row < rowSize; row++) {
+                    if (bitMap == null || !bitMap.isMarked(row)) {
+                        writer.write(timestamps[row], ((Binary[]) values)[row]);
+                    }
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException("不支持的数据类型：" + writer.getDataType());
+        }
+    }
+
+    /**
+     * 写入对齐设备时间列的 [from, to) 行
+     */
+    private static void writeTimeColumn(TimeChunkWriter writer, Tablet tablet, int from, int to) {
+        for (int row = from; row < to; row++) {
+            writer.write(tablet.timestamps[row]);
+        }
+    }
+
+    /**
+     * 写入对齐设备一个值列的 [from, to) 行，空值也占一行
+     */
+    private static void writeValueColumn(ValueChunkWriter writer, Tablet tablet, int column, int from, int to) {
+        long[] timestamps = tablet.timestamps;
+        BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[column];
+        Object values = tablet.values[column];
+        for (int row = from; row < to; row++) {
+            boolean isNull = bitMap != null && bitMap.isMarked(row);
+            long time = timestamps[row];
+            switch (writer.getDataType()) {
+                case BOOLEAN:
+                    writer.write(time, !isNull && ((boolean[]) values)[row], isNull);
+                    break;
+                case INT32:
+                    writer.write(time, isNull ? 0 : ((int[]) values)[row], isNull);
+                    break;
+                case DATE:
+                    writer.write(time, isNull ? 0 : DateUtils.parseDateExpressionToInt(((LocalDate[]) values)[row]), isNull);
+                    break;
+                case INT64:
+                case TIMESTAMP:
+                    writer.write(time, isNull ? 0L : ((long[]) values)[row], isNull);
+                    break;
+                case FLOAT:
+                    writer.write(time, isNull ? 0f : ((float[]) values)[row], isNull);
+                    break;
+                case DOUBLE:
+                    writer.write(time, isNull ? 0d : ((double[]) values)[row], isNull);
+                    break;
+                case TEXT:
+                case STRING:
+                case BLOB:
+                    writer.write(time, isNull ? null : ((Binary[]) values)[row], isNull);
+                    break;
+                default:
+                    throw new UnsupportedOperationException("不支持的数据类型：" + writer.getDataType());
+            }
+        }
+    }
+
+    private static boolean sameMeasurements(List<MeasurementSchema> expected, List<MeasurementSchema> actual) {
+        if (expected == actual) {
+            return true;
+        }
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).getMeasurementId().equals(actual.get(i).getMeasurementId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 一个设备在两次刷盘之间的 chunk writer
+     */
+    private static final class ChunkGroup {
+        private final boolean aligned;
+        // 非对齐设备的各列，按首次写入的顺序
+        private final Map<String, ChunkWriterImpl> chunkWriters = new LinkedHashMap<>();
+        // 对齐设备的 chunk writer 和它的物理量
+        private AlignedChunkWriterImpl alignedWriter;
+        private List<MeasurementSchema> alignedSchemas;
+
+        private ChunkGroup(boolean aligned) {
+            this.aligned = aligned;
+        }
+    }
+
+    private interface ColumnTask {
+        void run(int column);
+    }
+}
@@ -0,0 +1,61 @@
+package org.apache.iotdb.tree;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 生成和读取各阶段的 JFR 事件，只由 PhaseStats 在运行时带有 jdk.jfr 时使用。
+ * 录制：java -XX:StartFlightRecording=filename=generate.jfr ...，查看：jfr print --events org.apache.iotdb.tsfile.Phase generate.jfr
+ */
+@Name("org.apache.iotdb.tsfile.Phase")
+@Label("TsFile 生成阶段")
+@Category("TsFile Generator")
+@Description("注册、填充、写入、刷盘、关闭和读取各阶段的耗时与处理量")
+@StackTrace(false)
+class PhaseEvent extends Event {
+    @Label("来源")
+    String source;
+
+    @Label("阶段")
+    String phase;
+
+    @Label("行数")
+    long rows;
+
+    @Label("数据点数")
+    long points;
+
+    @Label("字节数")
+    @DataAmount
+    long bytes;
+
+    /**
+     * 正在录制该事件时开始计时并返回事件，否则返回 null
+     */
+    static Object start() {
+        PhaseEvent event = new PhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commit(Object started, String source, PhaseStats.Phase phase, long rows, long points, long bytes) {
+        PhaseEvent event = (PhaseEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.phase = phase.name();
+            event.rows = rows;
+            event.points = points;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.apache.iotdb.tree;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分阶段统计：注册序列、填充 Tablet、写入、刷盘、关闭和读取各阶段的次数、耗时、行数、数据点数和字节数
+ * <p>
+ * 填充阶段在多个生产者线程中并发记录，耗时是各线程耗时之和。运行时带有 JFR 时每次记录同时提交一个 PhaseEvent，
+ * 用 -XX:StartFlightRecording 录制，未录制时只多一次对象分配
+ */
+public class PhaseStats {
+
+    /**
+     * 生成和读取的各个阶段
+     */
+    public enum Phase {
+        // registerTimeseries、registerAlignedTimeseries、registerSchemaTemplate、registerDevice
+        REGISTER("注册"),
+        // 生成时间戳和随机值并填入 Tablet，两者按单元格交替进行，合并计时
+        FILL("填充"),
+        // write、writeAligned，包括编码和累计校验和，不包括其中触发的刷盘
+        WRITE("写入"),
+        // 把缓冲的 chunk group 刷到文件
+        FLUSH("刷盘"),
+        // 关闭时写入索引
+        CLOSE("关闭"),
+        // testReader 读回文件
+        READ("读取");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final int COUNT = 0;
+    private static final int NANOS = 1;
+    private static final int ROWS = 2;
+    private static final int POINTS = 3;
+    private static final int BYTES = 4;
+
+    // 是否可以提交 JFR 事件，JDK 8u262 之前没有 jdk.jfr
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    // JFR 事件中的来源，如 场景名 + 分片后缀
+    private final String source;
+    // 每个阶段的 次数、耗时（纳秒）、行数、数据点数、字节数
+    private final LongAdder[][] counters = new LongAdder[Phase.values().length][BYTES + 1];
+
+    public PhaseStats() {
+        this("");
+    }
+
+    public PhaseStats(String source) {
+        this.source = source;
+        for (LongAdder[] phaseCounters : counters) {
+            for (int i = 0; i < phaseCounters.length; i++) {
+                phaseCounters[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * 开始一个阶段，结束时调用 Span.end
+     */
+    public Span begin(Phase phase) {
+        return new Span(phase);
+    }
+
+    /**
+     * 合并另一个统计结果
+     */
+    public void add(PhaseStats other) {
+        for (int phase = 0; phase < counters.length; phase++) {
+            for (int i = 0; i <= BYTES; i++) {
+                counters[phase][i].add(other.counters[phase][i].sum());
+            }
+        }
+    }
+
+    public long getCount(Phase phase) {
+        return counters[phase.ordinal()][COUNT].sum();
+    }
+
+    public long getNanos(Phase phase) {
+        return counters[phase.ordinal()][NANOS].sum();
+    }
+
+    public long getRows(Phase phase) {
+        return counters[phase.ordinal()][ROWS].sum();
+    }
+
+    public long getPoints(Phase phase) {
+        return counters[phase.ordinal()][POINTS].sum();
+    }
+
+    public long getBytes(Phase phase) {
+        return counters[phase.ordinal()][BYTES].sum();
+    }
+
+    /**
+     * 清单中的分阶段统计，只包含发生过的阶段
+     */
+    public Map<String, Object> toManifest() {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            long count = getCount(phase);
+            if (count == 0) {
+                continue;
+            }
+            double seconds = Math.max(1, getNanos(phase)) / 1e9;
+            Map<String, Object> phaseManifest = new LinkedHashMap<>();
+            phaseManifest.put("count", count);
+            phaseManifest.put("millis", getNanos(phase) / 1000000);
+            phaseManifest.put("rows", getRows(phase));
+            phaseManifest.put("points", getPoints(phase));
+            phaseManifest.put("bytes", getBytes(phase));
+            phaseManifest.put("rowsPerSecond", Math.round(getRows(phase) / seconds));
+            phaseManifest.put("pointsPerSecond", Math.round(getPoints(phase) / seconds));
+            phaseManifest.put("megabytesPerSecond", Math.round(getBytes(phase) / 1048576.0 / seconds * 100) / 100.0);
+            manifest.put(phase.name().toLowerCase(), phaseManifest);
+        }
+        return manifest;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("阶段耗时：");
+        String separator = "";
+        for (Phase phase : Phase.values()) {
+            long count = getCount(phase);
+            if (count == 0) {
+                continue;
+            }
+            double seconds = Math.max(1, getNanos(phase)) / 1e9;
+            builder.append(separator).append(phase.getLabel()).append(String.format(" %.3f s", seconds));
+            if (getPoints(phase) > 0) {
+                builder.append(String.format("（%.0f 点/s", getPoints(phase) / seconds));
+            } else if (getRows(phase) > 0) {
+                builder.append(String.format("（%.0f 行/s", getRows(phase) / seconds));
+            } else {
+                builder.append(String.format("（%d 次", count));
+            }
+            if (getBytes(phase) > 0) {
+                builder.append(String.format("，%.2f MB/s", getBytes(phase) / 1048576.0 / seconds));
+            }
+            builder.append('）');
+            separator = "，";
+        }
+        return builder.toString();
+    }
+
+    private void record(Phase phase, long nanos, long rows, long points, long bytes) {
+        LongAdder[] phaseCounters = counters[phase.ordinal()];
+        phaseCounters[COUNT].increment();
+        phaseCounters[NANOS].add(nanos);
+        phaseCounters[ROWS].add(rows);
+        phaseCounters[POINTS].add(points);
+        phaseCounters[BYTES].add(bytes);
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 一次正在进行的阶段
+     */
+    public final class Span {
+        private final Phase phase;
+        private final long start;
+        // 正在录制时为 PhaseEvent，否则为 null
+        private final Object event;
+
+        private Span(Phase phase) {
+            this.phase = phase;
+            this.event = JFR_AVAILABLE ? PhaseEvent.start() : null;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * 结束阶段并记录处理的行数、数据点数和字节数，返回耗时（纳秒）
+         */
+        public long end(long rows, long points, long bytes) {
+            long nanos = System.nanoTime() - start;
+            record(phase, nanos, rows, points, bytes);
+            if (event != null) {
+                PhaseEvent.commit(event, source, phase, rows, points, bytes);
+            }
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.apache.iotdb.tree;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 生产者/写入流水线统计：各阶段的忙碌时间、写入线程等待生产者的时间和生产者被队列反压阻塞的时间
+ */
+public class PipelineStats {
+    // 生产者线程数，0表示不使用流水线
+    private int producerNumber;
+    // 写入的 Tablet 数
+    private long tabletNumber;
+    // 新分配的 Tablet 数，其余的从 TabletPool 复用
+    private long allocatedTabletNumber;
+    // 流水线从创建到结束的耗时（纳秒）
+    private long elapsedNanos;
+    // 生产者填充 Tablet 的累计耗时（纳秒）
+    private long produceNanos;
+    // 写入线程调用 write、writeAligned 和注册序列的累计耗时（纳秒）
+    private long writeNanos;
+    // 写入线程等待队列或等待 Tablet 填充完成的累计耗时（纳秒）
+    private long writerWaitNanos;
+    // 提交 Tablet 时因队列已满阻塞的累计耗时（纳秒）
+    private long backpressureNanos;
+    // 队列中同时排队的最大 Tablet 数
+    private int maxQueueSize;
+
+    void record(int producerNumber, long tabletNumber, long allocatedTabletNumber, long elapsedNanos, long produceNanos,
+                long writeNanos, long writerWaitNanos, long backpressureNanos, int maxQueueSize) {
+        this.producerNumber = Math.max(this.producerNumber, producerNumber);
+        this.tabletNumber += tabletNumber;
+        this.allocatedTabletNumber += allocatedTabletNumber;
+        this.elapsedNanos += elapsedNanos;
+        this.produceNanos += produceNanos;
+        this.writeNanos += writeNanos;
+        this.writerWaitNanos += writerWaitNanos;
+        this.backpressureNanos += backpressureNanos;
+        this.maxQueueSize = Math.max(this.maxQueueSize, maxQueueSize);
+    }
+
+    /**
+     * 合并另一个统计结果
+     */
+    public void add(PipelineStats other) {
+        record(other.producerNumber, other.tabletNumber, other.allocatedTabletNumber, other.elapsedNanos, other.produceNanos,
+                other.writeNanos, other.writerWaitNanos, other.backpressureNanos, other.maxQueueSize);
+    }
+
+    public int getProducerNumber() {
+        return producerNumber;
+    }
+
+    public long getTabletNumber() {
+        return tabletNumber;
+    }
+
+    public long getAllocatedTabletNumber() {
+        return allocatedTabletNumber;
+    }
+
+    public long getBackpressureNanos() {
+        return backpressureNanos;
+    }
+
+    /**
+     * 生产者利用率：填充耗时 / (耗时 * 生产者线程数)
+     */
+    public double getProducerUtilization() {
+        return elapsedNanos == 0 ? 0 : (double) produceNanos / elapsedNanos / Math.max(1, producerNumber);
+    }
+
+    /**
+     * 写入线程利用率：写入耗时 / 耗时
+     */
+    public double getWriterUtilization() {
+        return elapsedNanos == 0 ? 0 : (double) writeNanos / elapsedNanos;
+    }
+
+    /**
+     * 清单中的流水线统计
+     */
+    public Map<String, Object> toManifest() {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("producerNumber", producerNumber);
+        manifest.put("tabletNumber", tabletNumber);
+        manifest.put("allocatedTabletNumber", allocatedTabletNumber);
+        manifest.put("elapsedMillis", elapsedNanos / 1000000);
+        manifest.put("produceMillis", produceNanos / 1000000);
+        manifest.put("writeMillis", writeNanos / 1000000);
+        manifest.put("writerWaitMillis", writerWaitNanos / 1000000);
+        manifest.put("backpressureMillis", backpressureNanos / 1000000);
+        manifest.put("maxQueueSize", maxQueueSize);
+        manifest.put("producerUtilization", Math.round(getProducerUtilization() * 1000) / 1000.0);
+        manifest.put("writerUtilization", Math.round(getWriterUtilization() * 1000) / 1000.0);
+        return manifest;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("流水线：生产者 %d 个，Tablet 数：%d（新分配 %d），生产者利用率：%.1f%%，写入线程利用率：%.1f%%，写入线程等待：%.3f s，反压阻塞：%.3f s，最大排队：%d",
+                producerNumber, tabletNumber, allocatedTabletNumber, getProducerUtilization() * 100, getWriterUtilization() * 100,
+                writerWaitNanos / 1e9, backpressureNanos / 1e9, maxQueueSize);
+    }
+}
@@ -0,0 +1,172 @@
+package org.apache.iotdb.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 生成场景：设备布局、时间戳分区方式和写入的序列类型，由 SCENARIOS 配置
+ * <p>
+ * 内置的四个场景对应原来的 TreeTsFileV3_{Same,NoSame}Device_{Same,NoSame}TimeStamp，文件名、设备名和随机数流都保持不变；
+ * 自定义场景写成 名称:设备布局:时间分区:序列类型，如 Wide_Cross:SAME:CROSS_PARTITION:ALIGNED
+ */
+public final class Scenario {
+
+    /**
+     * 设备布局
+     */
+    public enum DeviceMode {
+        // 每个 执行次数_时间序列编号 一个设备
+        SEPARATE,
+        // 同类序列都在同一个设备中，对齐序列放在同一个 tablet 中按列并行填充
+        SAME
+    }
+
+    /**
+     * 时间戳分区方式
+     */
+    public enum TimeMode {
+        // 所有行在同一个时间分区
+        SAME_PARTITION,
+        // 每个时间分区 ROWS_PER_PARTITION 行
+        CROSS_PARTITION
+    }
+
+    /**
+     * 写入的序列类型
+     */
+    public enum SeriesMode {
+        NON_ALIGNED,
+        ALIGNED,
+        BOTH
+    }
+
+    // 内置场景，按名称查找
+    private static final Map<String, Scenario> BUILTIN = new LinkedHashMap<>();
+
+    static {
+        register(new Scenario("NoSameDevice_NoSameTimeStamp", DeviceMode.SEPARATE, TimeMode.CROSS_PARTITION, SeriesMode.NON_ALIGNED));
+        register(new Scenario("NoSameDevice_SameTimeStamp", DeviceMode.SEPARATE, TimeMode.SAME_PARTITION, SeriesMode.BOTH));
+        register(new Scenario("SameDevice_NoSameTimeStamp", DeviceMode.SAME, TimeMode.CROSS_PARTITION, SeriesMode.BOTH));
+        register(new Scenario("SameDevice_SameTimeStamp", DeviceMode.SAME, TimeMode.SAME_PARTITION, SeriesMode.BOTH));
+    }
+
+    private final String name;
+    private final DeviceMode deviceMode;
+    private final TimeMode timeMode;
+    private final SeriesMode seriesMode;
+
+    public Scenario(String name, DeviceMode deviceMode, TimeMode timeMode, SeriesMode seriesMode) {
+        if (name.isEmpty() || !name.matches("[A-Za-z0-9_]+")) {
+            throw new IllegalArgumentException("场景名只能包含字母、数字和下划线：" + name);
+        }
+        this.name = name;
+        this.deviceMode = deviceMode;
+        this.timeMode = timeMode;
+        this.seriesMode = seriesMode;
+    }
+
+    private static void register(Scenario scenario) {
+        BUILTIN.put(scenario.name, scenario);
+    }
+
+    /**
+     * 内置场景
+     */
+    public static List<Scenario> builtin() {
+        return new ArrayList<>(BUILTIN.values());
+    }
+
+    /**
+     * 按名称查找内置场景，找不到时抛出 IllegalArgumentException
+     */
+    public static Scenario of(String name) {
+        Scenario scenario = BUILTIN.get(name);
+        if (scenario == null) {
+            throw new IllegalArgumentException("未知的场景：" + name + "，内置场景：" + BUILTIN.keySet());
+        }
+        return scenario;
+    }
+
+    /**
+     * 解析场景列表：逗号分隔，每项为内置场景名或 名称:设备布局:时间分区:序列类型；为空时为全部内置场景，名称重复时抛出 IllegalArgumentException
+     */
+    public static List<Scenario> parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return builtin();
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (String item : value.split(",")) {
+            String entry = item.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            Scenario scenario;
+            if (parts.length == 1) {
+                scenario = of(entry);
+            } else if (parts.length == 4) {
+                scenario = new Scenario(parts[0].trim(),
+                        parseEnum(parts[1], DeviceMode.class, "设备布局"),
+                        parseEnum(parts[2], TimeMode.class, "时间分区"),
+                        parseEnum(parts[3], SeriesMode.class, "序列类型"));
+            } else {
+                throw new IllegalArgumentException("场景格式应为 名称:设备布局:时间分区:序列类型：" + entry);
+            }
+            if (!names.add(scenario.name)) {
+                throw new IllegalArgumentException("场景名重复：" + scenario.name);
+            }
+            scenarios.add(scenario);
+        }
+        return scenarios;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(String value, Class<E> type, String description) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的" + description + "：" + value.trim() + "，可选：" + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DeviceMode getDeviceMode() {
+        return deviceMode;
+    }
+
+    public TimeMode getTimeMode() {
+        return timeMode;
+    }
+
+    public SeriesMode getSeriesMode() {
+        return seriesMode;
+    }
+
+    public boolean isSameDevice() {
+        return deviceMode == DeviceMode.SAME;
+    }
+
+    public boolean isCrossPartition() {
+        return timeMode == TimeMode.CROSS_PARTITION;
+    }
+
+    /**
+     * 是否写入非对齐或对齐序列
+     */
+    public boolean writes(boolean aligned) {
+        return seriesMode == SeriesMode.BOTH || (seriesMode == SeriesMode.ALIGNED) == aligned;
+    }
+
+    @Override
+    public String toString() {
+        return name + ":" + deviceMode + ":" + timeMode + ":" + seriesMode;
+    }
+}
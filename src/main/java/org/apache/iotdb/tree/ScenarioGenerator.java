@@ -0,0 +1,578 @@
+package org.apache.iotdb.tree;
+
+import org.apache.iotdb.utils.GeneratorConfig;
+import org.apache.iotdb.value.NullSource;
+import org.apache.iotdb.value.TimestampPattern;
+import org.apache.iotdb.value.ValueSource;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.read.TsFileReader;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.read.expression.QueryExpression;
+import org.apache.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 树模型V3版本的场景生成器：设备布局由 DeviceLayout 决定，时间戳由 TimestampPattern 决定，写入和填充只有这一条路径
+ * <p>
+ * 每个 执行次数_时间序列编号 的一组序列使用独立的随机数流，按 场景名/序列类型/执行次数/时间序列编号 派生，生成结果与线程数和执行顺序无关
+ */
+public class ScenarioGenerator implements TsFileGenerator {
+    // DATE 列的取值范围，见 TabletFiller
+    private static final int DATE_BOUND = 1000;
+
+    // 配置
+    private final GeneratorConfig config;
+    // 场景
+    private final Scenario scenario;
+    // 分片
+    private final Shard shard;
+    // 生成路径
+    private final String path;
+    // 目标文件
+    private final File f;
+    // 数据库名
+    private final String databaseName;
+    // 非对齐设备名前缀
+    private final String nonAlignedDeviceName;
+    // 对齐设备名前缀
+    private final String alignedDeviceName;
+    // 一组序列的数据类型
+    private final TSDataType[] dataTypes;
+    // 写入路径上反复使用的配置，构造时取出
+    private final int loop;
+    private final int nonAlignedSchemasNumber;
+    private final int alignedSchemasNumber;
+    private final boolean containNullValues;
+    private final long tabletMemoryBudget;
+
+    // 已写入的数据点数
+    private long pointNumber = 0;
+    // 刷盘统计
+    private FlushStats flushStats = new FlushStats();
+    // 流水线统计
+    private final PipelineStats pipelineStats = new PipelineStats();
+    // 分阶段统计，写入器记录注册、写入、刷盘和关闭，生成器记录填充和读取
+    private final PhaseStats phaseStats;
+    // 写入时累计的序列校验和与统计，VERIFY_MODE=CHECKSUM 或 SERIES_MANIFEST=true 时使用
+    private final SeriesChecksums checksums = new SeriesChecksums();
+    // 校验结果
+    private FileVerifier.Result verifyResult;
+    // 序列清单路径
+    private String seriesManifestPath;
+    // 随机值生成，生成器在单个工作线程中执行，整个生成过程复用同一个实例；每个序列从中按键派生独立的随机数流
+    private final ValueSource valueSource;
+    // 当前分片负责的非对齐序列编号区间 [start, end)，编号为 执行次数 * 非对齐时间序列数量 + 时间序列编号
+    private final int[] nonAlignedUnits;
+    // 当前分片负责的对齐序列编号区间 [start, end)，编号为 执行次数 * 对齐时间序列数量 + 时间序列编号
+    private final int[] alignedUnits;
+    // 当前分片负责的行区间 [start, end)
+    private final int[] rows;
+    // 时间戳生成
+    private final TimestampPattern timestamps;
+    // 设备名、物理量名和 schema 注册方式，DEVICE_BATCH_SIZE 大于0时为大规模设备模式
+    private final DeviceLayout layout;
+
+    public ScenarioGenerator(Scenario scenario, Shard shard) {
+        this(GeneratorConfig.getInstance(), scenario, shard);
+    }
+
+    public ScenarioGenerator(GeneratorConfig config, Scenario scenario, Shard shard) {
+        this.config = config;
+        this.scenario = scenario;
+        this.shard = shard;
+        // 根据配置判断是否需要添加后缀，只在构造时确定一次，重复调用 testWrite 时名称不变
+        String uniqueSuffix = "_" + scenario.getName();
+        this.databaseName = "root." + config.getDatabaseName() + (config.isUniqueDatabaseName() ? uniqueSuffix : "");
+        String deviceSuffix = config.isUniqueDeviceName() ? uniqueSuffix : "";
+        this.nonAlignedDeviceName = databaseName + "." + config.getNonAlignedDeviceName() + deviceSuffix;
+        this.alignedDeviceName = databaseName + "." + config.getAlignedDeviceName() + deviceSuffix;
+        this.dataTypes = config.getDataTypes();
+        this.loop = config.getLoop();
+        this.nonAlignedSchemasNumber = config.getNonAlignedSchemasNumber();
+        this.alignedSchemasNumber = config.getAlignedSchemasNumber();
+        this.containNullValues = config.isContainNullValues();
+        this.tabletMemoryBudget = config.getTabletMemoryBudget();
+        this.valueSource = config.createValueSource();
+        this.path = config.getPosition() + "TreeTsFileV3_" + scenario.getName() + shard.getFileSuffix() + ".tsfile";
+        this.f = FSFactoryProducer.getFSFactory().getFile(path);
+        this.nonAlignedUnits = shard.splitUnits(loop * nonAlignedSchemasNumber);
+        this.alignedUnits = shard.splitUnits(loop * alignedSchemasNumber);
+        this.timestamps = config.getTimestampPattern(scenario.isCrossPartition());
+        this.rows = shard.splitRows(config.getRowNumber(), this::getTime, timestamps.getPartitionSize());
+        this.layout = new DeviceLayout(config, getScenario() + shard.getFileSuffix(), scenario.isSameDevice());
+        this.phaseStats = new PhaseStats(getScenario() + shard.getFileSuffix());
+    }
+
+    @Override
+    public String getScenario() {
+        return scenario.getName();
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public long getPointNumber() {
+        return pointNumber;
+    }
+
+    @Override
+    public FlushStats getFlushStats() {
+        return flushStats;
+    }
+
+    @Override
+    public PipelineStats getPipelineStats() {
+        return pipelineStats;
+    }
+
+    @Override
+    public PhaseStats getPhaseStats() {
+        return phaseStats;
+    }
+
+    @Override
+    public DeviceStats getDeviceStats() {
+        return layout.getStats();
+    }
+
+    @Override
+    public FileVerifier.Result getVerifyResult() {
+        return verifyResult;
+    }
+
+    @Override
+    public Map<String, Object> getManifest() {
+        Map<String, Object> manifest = shard.toManifest(path);
+        if (scenario.writes(false)) {
+            manifest.put("nonAligned", Shard.describeUnits(layout.getDevicePattern(nonAlignedDeviceName), layout.getMeasurementPattern(), nonAlignedUnits, nonAlignedSchemasNumber));
+        }
+        if (scenario.writes(true)) {
+            manifest.put("aligned", Shard.describeUnits(layout.getDevicePattern(alignedDeviceName), layout.getMeasurementPattern(), alignedUnits, alignedSchemasNumber));
+        }
+        manifest.put("rows", Shard.describeRows(rows, this::getTime));
+        manifest.put("timestamps", timestamps.toManifest());
+        if (layout.isBatched()) {
+            manifest.put("devices", layout.getStats().toManifest());
+        }
+        manifest.put("flush", flushStats.toManifest());
+        if (pipelineStats.getProducerNumber() > 0) {
+            manifest.put("pipeline", pipelineStats.toManifest());
+        }
+        manifest.put("phases", phaseStats.toManifest());
+        if (seriesManifestPath != null) {
+            manifest.put("seriesManifest", seriesManifestPath);
+        }
+        if (verifyResult != null) {
+            manifest.put("verify", verifyResult.toManifest());
+        }
+        return manifest;
+    }
+
+    /**
+     * 按下标计算路径，不保存全部路径，大规模设备模式下内存不随设备数增长
+     */
+    @Override
+    public List<Path> getSeries(boolean aligned) {
+        int[] units = aligned ? alignedUnits : nonAlignedUnits;
+        String prefix = aligned ? alignedDeviceName : nonAlignedDeviceName;
+        int size = Math.max(0, units[1] - units[0]) * dataTypes.length;
+        return new AbstractList<Path>() {
+            @Override
+            public Path get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("序列下标超出范围：" + index);
+                }
+                String suffix = layout.getSuffix(units[0] + index / dataTypes.length, aligned);
+                return new Path(layout.getDeviceName(prefix, suffix), layout.getMeasurement(dataTypes[index % dataTypes.length], suffix), true);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * 生成tsfile文件
+     */
+    @Override
+    public void testWrite() {
+        seriesManifestPath = null;
+        verifyResult = null;
+        checksums.clear();
+        try {
+            // 先删除上次运行留下的文件，当前分片没有数据时不生成文件，旧文件也不能留下被当作这次的输出
+            deleteOutputs();
+            if (rows[0] >= rows[1] || (!writesUnits(false) && !writesUnits(true))) {
+                return;
+            }
+            // 创建 TsFileWriter 对象，缓冲达到 WRITER_MEMORY_BUDGET 时主动刷盘；大规模设备模式下 chunk 元数据超过 CHUNK_METADATA_MEMORY_BUDGET 时转存到临时文件；
+            // 按 OUTPUT_MODE 和 FSYNC_POLICY 输出
+            BudgetedTsFileWriter tsFileWriter = new BudgetedTsFileWriter(f, config.getWriterMemoryBudget(),
+                    layout.isBatched() ? config.getChunkMetadataMemoryBudget() : 0, config.getOutputBackend());
+            TabletPipeline pipeline = null;
+            try {
+                // 乱序批次要写入比已写入的 chunk group 更早的数据
+                if (timestamps.isOutOfOrder()) {
+                    tsFileWriter.allowOutOfOrder();
+                }
+                if (config.getVerifyMode() == FileVerifier.Mode.CHECKSUM || config.isSeriesManifest()) {
+                    // 大规模设备模式下每批设备写完后把校验和转存到 文件名.checksums 临时文件，内存不随设备数增长
+                    if (layout.isBatched()) {
+                        checksums.enableSpill(new File(path + SeriesChecksums.SPILL_FILE_SUFFIX));
+                    }
+                    tsFileWriter.setChecksums(checksums);
+                }
+                tsFileWriter.setPhaseStats(phaseStats);
+                // ENCODE_THREAD_NUMBER 大于0时各列由线程池并行编码、压缩
+                tsFileWriter.enableParallelEncoding(config.getEncodeThreadNumber());
+                // PIPELINE_PRODUCER_NUMBER 大于0时由生产者线程填充 tablet，写入线程按提交顺序写入
+                pipeline = TabletPipeline.create(tsFileWriter, config);
+                layout.start();
+                if (scenario.isSameDevice() || layout.isBatched()) {
+                    // 同一个设备时每类序列依次写完；大规模设备模式下设备要按字典序写入，先写设备名排在前面的一类
+                    boolean alignedFirst = layout.isBatched() && (alignedDeviceName + "_").compareTo(nonAlignedDeviceName + "_") < 0;
+                    writeKind(pipeline, alignedFirst);
+                    writeKind(pipeline, !alignedFirst);
+                } else {
+                    // 执行写入次数，每次先写非对齐设备再写对齐设备
+                    for (int times = 0; times < loop; times++) {
+                        if (writesUnits(false)) {
+                            writeGroups(pipeline, false, times);
+                        }
+                        if (writesUnits(true)) {
+                            writeGroups(pipeline, true, times);
+                        }
+                    }
+                }
+                finish(pipeline);
+                // 关闭写入
+                tsFileWriter.close();
+            } catch (IOException | WriteProcessException | RuntimeException | Error e) {
+                // 出错时结束流水线的写入线程和生产者线程，关闭 writer 并删除不完整的文件，否则写入线程一直阻塞，文件句柄和线程池也不会释放
+                abort(pipeline, tsFileWriter, e);
+                throw e;
+            }
+            flushStats = tsFileWriter.getFlushStats();
+            // 输出每个序列的统计，写入时已累计好，不需要再读文件
+            if (config.isSeriesManifest()) {
+                seriesManifestPath = checksums.writeManifest(path, getScenario());
+            }
+            // 不再校验时释放校验和并删除转存文件
+            if (config.getVerifyMode() != FileVerifier.Mode.CHECKSUM) {
+                checksums.clear();
+            }
+        } catch (IOException | WriteProcessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void writeNonAligned(BudgetedTsFileWriter tsFileWriter) throws WriteProcessException, IOException {
+        writeAll(tsFileWriter, false);
+    }
+
+    @Override
+    public void writeAligned(BudgetedTsFileWriter tsFileWriter) throws WriteProcessException, IOException {
+        writeAll(tsFileWriter, true);
+    }
+
+    /**
+     * 用调用方的 writer 写入一类序列，出错时结束流水线，writer 由调用方关闭
+     */
+    private void writeAll(BudgetedTsFileWriter tsFileWriter, boolean aligned) throws WriteProcessException, IOException {
+        TabletPipeline pipeline = TabletPipeline.create(tsFileWriter, config);
+        try {
+            layout.start();
+            writeAll(pipeline, aligned);
+            finish(pipeline);
+        } catch (IOException | WriteProcessException | RuntimeException | Error e) {
+            pipeline.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * 写入出错时结束流水线，关闭 writer 并删除不完整的文件；清理中的异常附加到 failure 上，不覆盖原来的异常
+     */
+    private void abort(TabletPipeline pipeline, BudgetedTsFileWriter tsFileWriter, Throwable failure) {
+        if (pipeline != null) {
+            pipeline.abort();
+        }
+        // 异步输出关闭时会重新抛出后台写入错误，删除文件不能依赖关闭成功
+        try {
+            tsFileWriter.abort();
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+        try {
+            deleteOutputs();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 删除目标文件及其序列清单、chunk 元数据和校验和临时文件
+     */
+    private void deleteOutputs() throws IOException {
+        String[] suffixes = {"", SeriesChecksums.MANIFEST_FILE_SUFFIX, TsFileIOWriter.CHUNK_METADATA_TEMP_FILE_SUFFIX, SeriesChecksums.SPILL_FILE_SUFFIX};
+        for (String suffix : suffixes) {
+            Files.deleteIfExists(new File(path + suffix).toPath());
+        }
+    }
+
+    /**
+     * 场景写入这类序列且当前分片负责其中的序列
+     */
+    private boolean writesUnits(boolean aligned) {
+        int[] units = aligned ? alignedUnits : nonAlignedUnits;
+        return scenario.writes(aligned) && units[0] < units[1];
+    }
+
+    /**
+     * 写入一类序列，场景不写入这类序列时跳过
+     */
+    private void writeKind(TabletPipeline pipeline, boolean aligned) throws WriteProcessException, IOException {
+        if (writesUnits(aligned)) {
+            writeAll(pipeline, aligned);
+        }
+    }
+
+    /**
+     * 写入当前分片中一类序列的全部执行次数
+     */
+    private void writeAll(TabletPipeline pipeline, boolean aligned) throws WriteProcessException, IOException {
+        if (aligned && scenario.isSameDevice()) {
+            if (alignedUnits[0] < alignedUnits[1]) {
+                writeSharedAligned(pipeline);
+            }
+            return;
+        }
+        for (int times = 0; times < loop; times++) {
+            writeGroups(pipeline, aligned, times);
+        }
+    }
+
+    /**
+     * 写入一次执行中的各组序列，每组一个 tablet，同一组的各批依次填充
+     */
+    private void writeGroups(TabletPipeline pipeline, boolean aligned, int times) throws WriteProcessException, IOException {
+        int schemasNumber = aligned ? alignedSchemasNumber : nonAlignedSchemasNumber;
+        int[] units = aligned ? alignedUnits : nonAlignedUnits;
+        String prefix = aligned ? alignedDeviceName : nonAlignedDeviceName;
+        String kind = aligned ? "aligned" : "nonAligned";
+        // 生成 tablet，行数受 TABLET_MEMORY_BUDGET 限制；写完的 tablet 归还 TabletPool，后续设备直接复用
+        int batchRows = TabletFiller.batchRows(1, dataTypes, rows[1] - rows[0], tabletMemoryBudget);
+        for (int i = 0; i < schemasNumber; i++) {
+            // 跳过不属于当前分片的序列
+            int unit = times * schemasNumber + i;
+            if (unit < units[0] || unit >= units[1]) {
+                continue;
+            }
+            // 每个序列使用独立的随机数流，生成结果与线程数和执行顺序无关
+            ValueSource[] sources = {valueSource.derive(getScenario(), kind, times, i, rows[0])};
+            NullSource[] nulls = {createNullSource(kind, times, i)};
+            // 注册 schema，在写入线程中按提交顺序执行
+            String suffix = layout.getSuffix(unit, aligned);
+            List<MeasurementSchema> schemas = layout.createSchemas(suffix);
+            String deviceName = layout.getDeviceName(prefix, suffix);
+            layout.register(pipeline, deviceName, aligned, schemas);
+            CompletableFuture<Void> filled = null;
+            for (int start = rows[0]; start < rows[1]; start += batchRows) {
+                int from = start;
+                int to = Math.min(start + batchRows, rows[1]);
+                Tablet tablet = pipeline.takeTablet(deviceName, schemas, batchRows);
+                filled = pipeline.fill(filled, () -> {
+                    PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.FILL);
+                    fillTimestamps(tablet, from, to);
+                    fillValues(new TabletFiller(tablet, dataTypes), sources, nulls, 0, 1, from, to);
+                    span.end(to - from, (long) (to - from) * dataTypes.length, 0);
+                });
+                submit(pipeline, tablet, aligned, from, to, filled);
+            }
+            // 大规模设备模式下每写完一批设备刷盘一次
+            layout.deviceWritten(pipeline);
+        }
+    }
+
+    /**
+     * 写入同一个设备中的对齐序列：所有序列在同一个 tablet 中，按列分给各个生产者并行填充
+     */
+    @SuppressWarnings("unchecked")
+    private void writeSharedAligned(TabletPipeline pipeline) throws WriteProcessException, IOException {
+        int groups = alignedUnits[1] - alignedUnits[0];
+        List<MeasurementSchema> schemasAligned = new ArrayList<>(groups * dataTypes.length);
+        // 每个序列使用独立的随机数流，生成结果与线程数和执行顺序无关
+        ValueSource[] sources = new ValueSource[groups];
+        NullSource[] nulls = new NullSource[groups];
+        for (int unit = alignedUnits[0]; unit < alignedUnits[1]; unit++) {
+            schemasAligned.addAll(layout.createSchemas(layout.getSuffix(unit, true)));
+            sources[unit - alignedUnits[0]] = valueSource.derive(getScenario(), "aligned", unit / alignedSchemasNumber, unit % alignedSchemasNumber, rows[0]);
+            nulls[unit - alignedUnits[0]] = createNullSource("aligned", unit / alignedSchemasNumber, unit % alignedSchemasNumber);
+        }
+        // 注册 schema
+        layout.register(pipeline, alignedDeviceName, true, schemasAligned);
+        // 序列按编号均分为若干片，每片由一个生产者填充；同一片的各批依次填充，保证每个随机数流按行的顺序消费
+        int sliceNumber = Math.max(1, Math.min(pipeline.getProducerNumber(), groups));
+        CompletableFuture<Void>[] filled = new CompletableFuture[sliceNumber];
+        // 生成 tablet，行数受 TABLET_MEMORY_BUDGET 限制，写完的 tablet 归还 TabletPool 后复用
+        int batchRows = TabletFiller.batchRows(groups, dataTypes, rows[1] - rows[0], tabletMemoryBudget);
+        for (int start = rows[0]; start < rows[1]; start += batchRows) {
+            int from = start;
+            int to = Math.min(start + batchRows, rows[1]);
+            Tablet tablet = pipeline.takeTablet(alignedDeviceName, schemasAligned, batchRows);
+            // 行数记在时间列上，数据点数记在各片上
+            PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.FILL);
+            fillTimestamps(tablet, from, to);
+            span.end(to - from, 0, 0);
+            TabletFiller filler = new TabletFiller(tablet, dataTypes);
+            for (int slice = 0; slice < sliceNumber; slice++) {
+                int first = groups * slice / sliceNumber;
+                int last = groups * (slice + 1) / sliceNumber;
+                filled[slice] = pipeline.fill(filled[slice], () -> {
+                    PhaseStats.Span sliceSpan = phaseStats.begin(PhaseStats.Phase.FILL);
+                    fillValues(filler, sources, nulls, first, last, from, to);
+                    sliceSpan.end(0, (long) (to - from) * (last - first) * dataTypes.length, 0);
+                });
+            }
+            submit(pipeline, tablet, true, from, to, filled.clone());
+        }
+    }
+
+    /**
+     * 提交 [from, to) 行的 tablet，被选中的批次推迟到下一批之后写入（乱序）
+     */
+    private void submit(TabletPipeline pipeline, Tablet tablet, boolean aligned, int from, int to, CompletableFuture<?>... filled)
+            throws WriteProcessException, IOException {
+        if (to < rows[1] && timestamps.isLate(from)) {
+            pipeline.writeLate(tablet, aligned, filled);
+        } else {
+            pipeline.write(tablet, aligned, filled);
+        }
+    }
+
+    /**
+     * 写入 tablet 的时间列，tablet 的第 0 行对应第 start 行
+     */
+    private void fillTimestamps(Tablet tablet, int start, int end) {
+        for (int row = start; row < end; row++) {
+            tablet.addTimestamp(row - start, getTime(row));
+        }
+        tablet.rowSize = end - start;
+    }
+
+    /**
+     * 第 times 次执行第 i 组序列的空值生成，使用与取值独立的随机数流；不含空值时为 null
+     */
+    private NullSource createNullSource(String kind, int times, int i) {
+        return config.createNullSource(valueSource.derive(getScenario(), kind, times, i, rows[0], "null"));
+    }
+
+    /**
+     * 填充 tablet 中第 [first, last) 组序列的 [start, end) 行，在生产者线程中执行；
+     * 含空值时先整段写入各列的空值位图，再逐行只为非空的单元格生成值
+     */
+    private void fillValues(TabletFiller filler, ValueSource[] sources, NullSource[] nulls, int first, int last, int start, int end) {
+        if (!containNullValues) {
+            for (int row = start; row < end; row++) {
+                for (int k = first; k < last; k++) {
+                    filler.fillAll(k * dataTypes.length, row - start, sources[k], DATE_BOUND);
+                }
+            }
+            return;
+        }
+        for (int k = first; k < last; k++) {
+            filler.fillNulls(k * dataTypes.length, nulls[k], start, end, 0);
+        }
+        for (int row = start; row < end; row++) {
+            for (int k = first; k < last; k++) {
+                filler.fillPresent(k * dataTypes.length, row - start, sources[k], DATE_BOUND);
+            }
+        }
+    }
+
+    /**
+     * 等待流水线中的 tablet 全部写完，累计数据点数和流水线统计
+     */
+    private void finish(TabletPipeline pipeline) throws WriteProcessException, IOException {
+        pipelineStats.add(pipeline.finish());
+        pointNumber += pipeline.getPointNumber();
+    }
+
+    /**
+     * 第 row 行的时间戳，跨时间分区时每个时间分区 ROWS_PER_PARTITION 行
+     */
+    private long getTime(int row) {
+        return timestamps.time(row);
+    }
+
+    /**
+     * 读取数据
+     */
+    @Override
+    public void testReader() {
+        // 当前分片没有数据
+        if (!f.exists()) {
+            return;
+        }
+        switch (config.getVerifyMode()) {
+            case NONE:
+                return;
+            case CHECKSUM:
+                // 分批流式读回全部序列，与写入时的校验和比对
+                PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.READ);
+                verifyResult = FileVerifier.verify(path, checksums);
+                checksums.clear();
+                span.end(verifyResult.getRowNumber(), verifyResult.getPointNumber(), f.length());
+                System.out.println(getScenario() + shard.getFileSuffix() + " " + verifyResult);
+                return;
+            default:
+                break;
+        }
+        // 打印当前分片中每类序列的第一组
+        for (boolean aligned : new boolean[]{false, true}) {
+            if (!writesUnits(aligned)) {
+                continue;
+            }
+            int unit = aligned ? alignedUnits[0] : nonAlignedUnits[0];
+            String suffix = layout.getSuffix(unit, aligned);
+            String deviceName = layout.getDeviceName(aligned ? alignedDeviceName : nonAlignedDeviceName, suffix);
+            PhaseStats.Span span = phaseStats.begin(PhaseStats.Phase.READ);
+            long rowNumber = 0;
+            try {
+                TsFileSequenceReader fileSequenceReader = new TsFileSequenceReader(path);
+                TsFileReader reader = new TsFileReader(fileSequenceReader);
+                List<Path> selectedSeries = new ArrayList<>();
+                selectedSeries.add(new Path(deviceName, layout.getMeasurement(TSDataType.INT32, suffix), true));
+                selectedSeries.add(new Path(deviceName, layout.getMeasurement(TSDataType.TIMESTAMP, suffix), true));
+                QueryDataSet dataSet = reader.query(QueryExpression.create(selectedSeries, null));
+                while (dataSet.hasNext()) {
+                    System.out.println(dataSet.next());
+                    rowNumber++;
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            span.end(rowNumber, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 按数据类型指定的编码和压缩方式，没有指定的类型使用 TsFile 的默认值
+ * <p>
+ * 配置格式为逗号分隔的 TYPE:VALUE，如 INT32:TS_2DIFF,TEXT:DICTIONARY；不带类型的 VALUE 作用于所有支持它的类型，
+ * 同时出现时带类型的优先。为空表示全部使用默认值
+ */
+public class SchemaEncoding {
+    public static final SchemaEncoding DEFAULT = new SchemaEncoding(new EnumMap<>(TSDataType.class), new EnumMap<>(TSDataType.class));
+
+    private final Map<TSDataType, TSEncoding> encodings;
+    private final Map<TSDataType, CompressionType> compressors;
+
+    private SchemaEncoding(Map<TSDataType, TSEncoding> encodings, Map<TSDataType, CompressionType> compressors) {
+        this.encodings = encodings;
+        this.compressors = compressors;
+    }
+
+    /**
+     * 解析编码和压缩配置，格式错误或指定的类型不支持该编码时抛出 IllegalArgumentException
+     */
+    public static SchemaEncoding parse(String encoding, String compressor) {
+        Map<TSDataType, TSEncoding> encodings = new EnumMap<>(TSDataType.class);
+        Map<TSDataType, String> typed = new EnumMap<>(TSDataType.class);
+        String global = split(encoding, typed);
+        if (global != null) {
+            // 不带类型的编码只作用于支持它的类型，如 GORILLA 只作用于数值类型
+            TSEncoding value = TSEncoding.valueOf(global);
+            for (TSDataType dataType : TabletFiller.DATA_TYPES) {
+                if (TSEncoding.isSupported(dataType, value)) {
+                    encodings.put(dataType, value);
+                }
+            }
+        }
+        for (Map.Entry<TSDataType, String> entry : typed.entrySet()) {
+            TSEncoding value = TSEncoding.valueOf(entry.getValue());
+            if (!TSEncoding.isSupported(entry.getKey(), value)) {
+                throw new IllegalArgumentException(entry.getKey() + " 不支持编码 " + value);
+            }
+            encodings.put(entry.getKey(), value);
+        }
+        Map<TSDataType, CompressionType> compressors = new EnumMap<>(TSDataType.class);
+        typed.clear();
+        global = split(compressor, typed);
+        if (global != null) {
+            CompressionType value = CompressionType.valueOf(global);
+            for (TSDataType dataType : TabletFiller.DATA_TYPES) {
+                compressors.put(dataType, value);
+            }
+        }
+        for (Map.Entry<TSDataType, String> entry : typed.entrySet()) {
+            compressors.put(entry.getKey(), CompressionType.valueOf(entry.getValue()));
+        }
+        return encodings.isEmpty() && compressors.isEmpty() ? DEFAULT : new SchemaEncoding(encodings, compressors);
+    }
+
+    /**
+     * 拆分 TYPE:VALUE 列表，带类型的放入 typed，返回不带类型的值，没有时返回 null
+     */
+    private static String split(String value, Map<TSDataType, String> typed) {
+        String global = null;
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        for (String item : value.split(",")) {
+            String entry = item.trim().toUpperCase();
+            int index = entry.indexOf(':');
+            if (index < 0) {
+                global = entry;
+            } else {
+                typed.put(TSDataType.valueOf(entry.substring(0, index).trim()), entry.substring(index + 1).trim());
+            }
+        }
+        return global;
+    }
+
+    /**
+     * 按配置的编码和压缩方式创建 schema
+     */
+    public MeasurementSchema createSchema(String measurementId, TSDataType dataType) {
+        TSEncoding encoding = encodings.get(dataType);
+        CompressionType compressor = compressors.get(dataType);
+        if (encoding == null && compressor == null) {
+            return new MeasurementSchema(measurementId, dataType);
+        }
+        MeasurementSchema defaults = new MeasurementSchema(measurementId, dataType);
+        return new MeasurementSchema(measurementId, dataType,
+                encoding == null ? defaults.getEncodingType() : encoding,
+                compressor == null ? defaults.getCompressor() : compressor);
+    }
+
+    /**
+     * 清单和报告中的描述，如 INT32:TS_2DIFF,TEXT:DICTIONARY / SNAPPY
+     */
+    @Override
+    public String toString() {
+        return (encodings.isEmpty() ? "DEFAULT" : format(encodings)) + " / " + (compressors.isEmpty() ? "DEFAULT" : format(compressors));
+    }
+
+    private static String format(Map<TSDataType, ?> values) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<TSDataType, ?> entry : values.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return builder.toString();
+    }
+}
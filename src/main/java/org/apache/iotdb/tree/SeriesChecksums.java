@@ -0,0 +1,378 @@
+package org.apache.iotdb.tree;
+
+import org.apache.iotdb.utils.JsonUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.Field;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 写入时按序列累计的校验和与统计：行数、非空数据点数、空值数、最小最大时间和 (时间戳, 值) 哈希之和
+ * <p>
+ * 哈希与 Tablet 的划分和写入顺序无关，每个序列只占固定大小的内存，写完即可输出，不需要再读一遍文件。
+ * 大规模设备模式下每批设备写完后把校验和转存到临时文件，内存中只保留当前一批设备的序列，清单和校验都从临时文件流式读回
+ */
+public class SeriesChecksums {
+    // 序列清单的后缀，完整路径为 tsfile 路径 + 后缀
+    public static final String MANIFEST_FILE_SUFFIX = ".series.json";
+    // 转存文件的后缀，完整路径为 tsfile 路径 + 后缀
+    public static final String SPILL_FILE_SUFFIX = ".checksums";
+
+    // 序列完整路径 -> 校验和，启用转存时只有尚未转存的序列
+    private final Map<String, Checksum> checksums = new LinkedHashMap<>();
+    // 转存文件，为 null 时全部保留在内存中
+    private File spillFile;
+    // 已转存的序列数
+    private long spilledNumber;
+
+    /**
+     * 累计一个 Tablet 中每个序列的数据点和空值
+     */
+    public void update(Tablet tablet) {
+        List<MeasurementSchema> schemas = tablet.getSchemas();
+        for (int column = 0; column < schemas.size(); column++) {
+            MeasurementSchema schema = schemas.get(column);
+            Checksum checksum = checksums.computeIfAbsent(tablet.deviceId + "." + schema.getMeasurementId(),
+                    key -> new Checksum(tablet.deviceId, schema.getMeasurementId(), schema.getType()));
+            BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[column];
+            Object values = tablet.values[column];
+            for (int row = 0; row < tablet.rowSize; row++) {
+                if (bitMap != null && bitMap.isMarked(row)) {
+                    checksum.addNull();
+                    continue;
+                }
+                checksum.add(tablet.timestamps[row], hashValue(schema.getType(), values, row));
+            }
+        }
+    }
+
+    /**
+     * 启用转存：之后每次调用 spill 时把内存中的校验和追加到 spillFile，上次运行留下的同名文件先删除
+     */
+    public void enableSpill(File spillFile) {
+        clear();
+        delete(spillFile);
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * 把内存中的校验和追加到转存文件并清空，未启用转存时不做任何事。只能在这些序列全部写完后调用，如每批设备刷盘后
+     */
+    public void spill() throws IOException {
+        if (spillFile == null || checksums.isEmpty()) {
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile, true)))) {
+            for (Checksum checksum : checksums.values()) {
+                checksum.write(out);
+            }
+        }
+        spilledNumber += checksums.size();
+        checksums.clear();
+    }
+
+    /**
+     * 清空全部校验和并删除转存文件，之后不再转存
+     */
+    public void clear() {
+        checksums.clear();
+        spilledNumber = 0;
+        if (spillFile != null) {
+            delete(spillFile);
+            spillFile = null;
+        }
+    }
+
+    /**
+     * 按写入顺序遍历全部序列的校验和，先从转存文件流式读回，再遍历内存中的部分
+     */
+    public Iterable<Checksum> getChecksums() {
+        return () -> spilledNumber == 0 ? checksums.values().iterator() : new SpillIterator();
+    }
+
+    public long size() {
+        return spilledNumber + checksums.size();
+    }
+
+    /**
+     * 输出与 tsfile 同名的序列清单（tsfile 路径 + ".series.json"），供导入后按序列比对聚合值；逐个序列流式写出，不在内存中拼接整个清单
+     */
+    public String writeManifest(String tsFilePath, String scenario) {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("file", tsFilePath);
+        manifest.put("scenario", scenario);
+        manifest.put("hashAlgorithm", "sum(mix64(time * 0x9e3779b97f4a7c15 ^ mix64(valueHash)))，valueHash：BOOLEAN 1/0，INT32、INT64、TIMESTAMP 原值，FLOAT、DOUBLE 位模式，TEXT、STRING、BLOB 内容的 FNV-1a 64，DATE epochDay");
+        manifest.put("seriesNumber", size());
+        String manifestPath = tsFilePath + MANIFEST_FILE_SUFFIX;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(manifestPath), StandardCharsets.UTF_8))) {
+            writer.write("{\n");
+            for (Map.Entry<String, Object> entry : manifest.entrySet()) {
+                writer.write("  " + JsonUtils.toJson(entry.getKey()) + ": " + JsonUtils.toJson(entry.getValue(), 1) + ",\n");
+            }
+            if (size() == 0) {
+                writer.write("  \"series\": []\n}");
+                return manifestPath;
+            }
+            writer.write("  \"series\": [\n");
+            String separator = "";
+            for (Checksum checksum : getChecksums()) {
+                writer.write(separator);
+                writer.write("    " + JsonUtils.toJson(checksum.toManifest(), 2));
+                separator = ",\n";
+            }
+            writer.write("\n  ]\n}");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return manifestPath;
+    }
+
+    private static void delete(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Tablet 值数组中一个值的哈希
+     */
+    private static long hashValue(TSDataType dataType, Object values, int row) {
+        switch (dataType) {
+            case BOOLEAN:
+                return ((boolean[]) values)[row] ? 1 : 0;
+            case INT32:
+                return ((int[]) values)[row];
+            case INT64:
+            case TIMESTAMP:
+                return ((long[]) values)[row];
+            case FLOAT:
+                return Float.floatToIntBits(((float[]) values)[row]);
+            case DOUBLE:
+                return Double.doubleToLongBits(((double[]) values)[row]);
+            case TEXT:
+            case STRING:
+            case BLOB:
+                return hashBytes(((Binary[]) values)[row].getValues());
+            case DATE:
+                return ((LocalDate[]) values)[row].toEpochDay();
+            default:
+                throw new UnsupportedOperationException("不支持的数据类型：" + dataType);
+        }
+    }
+
+    /**
+     * 查询结果中一个值的哈希，与 hashValue 对同一个值的结果相同
+     */
+    static long hashField(TSDataType dataType, Field field) {
+        switch (dataType) {
+            case BOOLEAN:
+                return field.getBoolV() ? 1 : 0;
+            case INT32:
+                return field.getIntV();
+            case INT64:
+            case TIMESTAMP:
+                return field.getLongV();
+            case FLOAT:
+                return Float.floatToIntBits(field.getFloatV());
+            case DOUBLE:
+                return Double.doubleToLongBits(field.getDoubleV());
+            case TEXT:
+            case STRING:
+            case BLOB:
+                return hashBytes(field.getBinaryV().getValues());
+            case DATE:
+                return field.getDateV().toEpochDay();
+            default:
+                throw new UnsupportedOperationException("不支持的数据类型：" + dataType);
+        }
+    }
+
+    /**
+     * FNV-1a 64位哈希
+     */
+    private static long hashBytes(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * 单个序列的校验和
+     */
+    public static class Checksum {
+        private final String device;
+        private final String measurement;
+        private final TSDataType dataType;
+        // 非空数据点数
+        private long count;
+        // 空值数
+        private long nullCount;
+        // 非空数据点的最小、最大时间
+        private long minTime = Long.MAX_VALUE;
+        private long maxTime = Long.MIN_VALUE;
+        // 每个数据点 (时间戳, 值) 哈希之和
+        private long hash;
+
+        public Checksum(String device, String measurement, TSDataType dataType) {
+            this.device = device;
+            this.measurement = measurement;
+            this.dataType = dataType;
+        }
+
+        public void add(long time, long valueHash) {
+            count++;
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            hash += mix64(time * 0x9e3779b97f4a7c15L ^ mix64(valueHash));
+        }
+
+        public void addNull() {
+            nullCount++;
+        }
+
+        public String getDevice() {
+            return device;
+        }
+
+        public String getMeasurement() {
+            return measurement;
+        }
+
+        public TSDataType getDataType() {
+            return dataType;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+
+        public long getNullCount() {
+            return nullCount;
+        }
+
+        public Map<String, Object> toManifest() {
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("path", device + "." + measurement);
+            manifest.put("dataType", dataType.name());
+            manifest.put("rowCount", count + nullCount);
+            manifest.put("count", count);
+            manifest.put("nullCount", nullCount);
+            if (count > 0) {
+                manifest.put("minTime", minTime);
+                manifest.put("maxTime", maxTime);
+            }
+            manifest.put("hash", Long.toHexString(hash));
+            return manifest;
+        }
+
+        /**
+         * 写入转存文件
+         */
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(device);
+            out.writeUTF(measurement);
+            out.writeUTF(dataType.name());
+            out.writeLong(count);
+            out.writeLong(nullCount);
+            out.writeLong(minTime);
+            out.writeLong(maxTime);
+            out.writeLong(hash);
+        }
+
+        /**
+         * 从转存文件读回
+         */
+        private static Checksum read(DataInputStream in) throws IOException {
+            Checksum checksum = new Checksum(in.readUTF(), in.readUTF(), TSDataType.valueOf(in.readUTF()));
+            checksum.count = in.readLong();
+            checksum.nullCount = in.readLong();
+            checksum.minTime = in.readLong();
+            checksum.maxTime = in.readLong();
+            checksum.hash = in.readLong();
+            return checksum;
+        }
+
+        public boolean matches(Checksum other) {
+            return count == other.count && hash == other.hash;
+        }
+
+        @Override
+        public String toString() {
+            return device + "." + measurement + "（数据点数：" + count + "，哈希：" + Long.toHexString(hash) + "）";
+        }
+    }
+
+    /**
+     * 先逐个读回转存文件中的校验和，读完后关闭文件，再遍历内存中的部分
+     */
+    private class SpillIterator implements Iterator<Checksum> {
+        private final Iterator<Checksum> remaining = checksums.values().iterator();
+        private DataInputStream in;
+        private long spilledLeft = spilledNumber;
+
+        private SpillIterator() {
+            try {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile)));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return spilledLeft > 0 || remaining.hasNext();
+        }
+
+        @Override
+        public Checksum next() {
+            if (spilledLeft == 0) {
+                return remaining.next();
+            }
+            try {
+                Checksum checksum = Checksum.read(in);
+                if (--spilledLeft == 0) {
+                    in.close();
+                }
+                return checksum;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.apache.iotdb.tree;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+/**
+ * 分片：一个场景拆分成多个tsfile时，描述当前文件负责写入的部分
+ */
+public class Shard {
+
+    /**
+     * 分片模式
+     */
+    public enum Mode {
+        // 不分片
+        NONE,
+        // 按设备（执行次数_时间序列编号）划分
+        DEVICE,
+        // 按时间分区划分
+        TIME,
+        // 按目标文件大小估算分片数，再按设备划分
+        SIZE
+    }
+
+    // 不分片时使用的唯一分片
+    public static final Shard NONE = new Shard(Mode.NONE, 0, 1);
+
+    private final Mode mode;
+    // 分片编号（从0开始）
+    private final int index;
+    // 分片总数
+    private final int number;
+
+    public Shard(Mode mode, int index, int number) {
+        if (number <= 0 || index < 0 || index >= number) {
+            throw new IllegalArgumentException("非法的分片：" + index + "/" + number);
+        }
+        this.mode = mode;
+        this.index = index;
+        this.number = number;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * 文件名后缀，不分片时为空
+     */
+    public String getFileSuffix() {
+        return mode == Mode.NONE ? "" : "_shard" + index;
+    }
+
+    /**
+     * 当前分片负责的序列编号区间 [start, end)，编号为 执行次数 * 时间序列数量 + 时间序列编号
+     */
+    public int[] splitUnits(int total) {
+        if (mode == Mode.DEVICE || mode == Mode.SIZE) {
+            return split(total);
+        }
+        return new int[]{0, total};
+    }
+
+    /**
+     * 当前分片负责的行区间 [start, end)，TIME 模式下按时间分区连续划分，同一个时间分区只会落在一个分片中
+     */
+    public int[] splitRows(int rowNumber, IntToLongFunction timeOfRow, long partitionSize) {
+        if (mode != Mode.TIME || rowNumber == 0) {
+            return new int[]{0, rowNumber};
+        }
+        // 时间戳随行号递增，统计时间分区个数
+        int partitionNumber = 1;
+        for (int row = 1; row < rowNumber; row++) {
+            if (Math.floorDiv(timeOfRow.applyAsLong(row), partitionSize) != Math.floorDiv(timeOfRow.applyAsLong(row - 1), partitionSize)) {
+                partitionNumber++;
+            }
+        }
+        int[] partitions = split(partitionNumber);
+        // 找到分区区间对应的行区间
+        int start = -1;
+        int end = rowNumber;
+        int partition = 0;
+        for (int row = 0; row < rowNumber; row++) {
+            if (row > 0 && Math.floorDiv(timeOfRow.applyAsLong(row), partitionSize) != Math.floorDiv(timeOfRow.applyAsLong(row - 1), partitionSize)) {
+                partition++;
+            }
+            if (partition == partitions[0] && start < 0) {
+                start = row;
+            }
+            if (partition == partitions[1]) {
+                end = row;
+                break;
+            }
+        }
+        return start < 0 ? new int[]{rowNumber, rowNumber} : new int[]{start, end};
+    }
+
+    /**
+     * 把 total 个元素均匀划分给各个分片
+     */
+    private int[] split(int total) {
+        return new int[]{(int) ((long) total * index / number), (int) ((long) total * (index + 1) / number)};
+    }
+
+    /**
+     * 清单中分片的基本信息
+     */
+    public Map<String, Object> toManifest(String path) {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("file", path);
+        manifest.put("shardMode", mode.name());
+        manifest.put("shardIndex", index);
+        manifest.put("shardNumber", number);
+        return manifest;
+    }
+
+    /**
+     * 清单中序列区间的描述，device 和 measurement 中的 {times}、{i} 为占位符
+     */
+    public static Map<String, Object> describeUnits(String device, String measurement, int[] units, int schemasNumber) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("device", device);
+        description.put("measurement", measurement);
+        description.put("number", units[1] - units[0]);
+        if (units[1] > units[0]) {
+            description.put("from", units[0] / schemasNumber + "_" + units[0] % schemasNumber);
+            description.put("to", (units[1] - 1) / schemasNumber + "_" + (units[1] - 1) % schemasNumber);
+        }
+        return description;
+    }
+
+    /**
+     * 清单中行区间的描述
+     */
+    public static Map<String, Object> describeRows(int[] rows, IntToLongFunction timeOfRow) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("start", rows[0]);
+        description.put("end", rows[1]);
+        if (rows[1] > rows[0]) {
+            description.put("minTime", timeOfRow.applyAsLong(rows[0]));
+            description.put("maxTime", timeOfRow.applyAsLong(rows[1] - 1));
+        }
+        return description;
+    }
+}
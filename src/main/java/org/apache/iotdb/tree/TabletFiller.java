@@ -0,0 +1,281 @@
+package org.apache.iotdb.tree;
+
+import org.apache.iotdb.value.NullSource;
+import org.apache.iotdb.value.ValueSource;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按列下标直接写入 Tablet 的值数组，替代逐个单元格拼接物理量名再 addValue 的方式
+ * <p>
+ * 每个 执行次数_时间序列编号 对应一组列，列顺序与 dataTypes 一致，offset 为该组第一列的下标；含空值时先由 NullSource 整段写入各列的空值位图，
+ * 再只为非空的单元格生成值
+ */
+public class TabletFiller {
+    // 默认一组序列的数据类型，顺序即注册 schema 的顺序
+    public static final TSDataType[] DATA_TYPES = {
+            TSDataType.BOOLEAN, TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE,
+            TSDataType.TEXT, TSDataType.STRING, TSDataType.BLOB, TSDataType.TIMESTAMP, TSDataType.DATE
+    };
+    // 默认一组序列的列数
+    public static final int COLUMN_NUMBER = DATA_TYPES.length;
+    // 变长类型的字符数
+    private static final int TEXT_LENGTH = 1000;
+    private static final int STRING_LENGTH = 100;
+    private static final int BLOB_LENGTH = 100;
+    // 字符平均约1.3字节
+    private static final double BYTES_PER_CHAR = 1.3;
+    // Binary 在堆上除内容外的开销：引用、对象头、byte[]头
+    private static final int BINARY_OVERHEAD = 40;
+    // LocalDate 在堆上的开销：引用和对象
+    private static final int DATE_OVERHEAD = 32;
+
+    private final Tablet tablet;
+    // 一组序列的数据类型
+    private final TSDataType[] dataTypes;
+    // 一组的列数
+    private final int columnNumber;
+    // 按列缓存强转后的值数组
+    private final boolean[][] booleans;
+    private final int[][] ints;
+    private final long[][] longs;
+    private final float[][] floats;
+    private final double[][] doubles;
+    private final Binary[][] binaries;
+    private final LocalDate[][] dates;
+    // 按列缓存空值位图的字节数组，Tablet 没有初始化 bitMaps 时为 null
+    private final byte[][] nulls;
+
+    public TabletFiller(Tablet tablet) {
+        this(tablet, DATA_TYPES);
+    }
+
+    public TabletFiller(Tablet tablet, TSDataType[] dataTypes) {
+        this.tablet = tablet;
+        this.dataTypes = dataTypes;
+        this.columnNumber = dataTypes.length;
+        int columns = tablet.values.length;
+        booleans = new boolean[columns][];
+        ints = new int[columns][];
+        longs = new long[columns][];
+        floats = new float[columns][];
+        doubles = new double[columns][];
+        binaries = new Binary[columns][];
+        dates = new LocalDate[columns][];
+        nulls = tablet.bitMaps == null ? null : new byte[columns][];
+        for (int column = 0; column < columns; column++) {
+            if (nulls != null) {
+                nulls[column] = tablet.bitMaps[column].getByteArray();
+            }
+            switch (dataTypes[column % columnNumber]) {
+                case BOOLEAN:
+                    booleans[column] = (boolean[]) tablet.values[column];
+                    break;
+                case INT32:
+                    ints[column] = (int[]) tablet.values[column];
+                    break;
+                case INT64:
+                case TIMESTAMP:
+                    longs[column] = (long[]) tablet.values[column];
+                    break;
+                case FLOAT:
+                    floats[column] = (float[]) tablet.values[column];
+                    break;
+                case DOUBLE:
+                    doubles[column] = (double[]) tablet.values[column];
+                    break;
+                case TEXT:
+                case STRING:
+                case BLOB:
+                    binaries[column] = (Binary[]) tablet.values[column];
+                    break;
+                case DATE:
+                    dates[column] = (LocalDate[]) tablet.values[column];
+                    break;
+                default:
+                    throw new UnsupportedOperationException("不支持的数据类型：" + dataTypes[column % columnNumber]);
+            }
+        }
+    }
+
+    /**
+     * 使用默认数据类型生成一组序列的 schema
+     */
+    public static List<MeasurementSchema> createSchemas(String measurementName, String suffix) {
+        return createSchemas(measurementName, suffix, DATA_TYPES);
+    }
+
+    /**
+     * 生成一组序列的 schema，物理量名为 measurementName + "_" + 数据类型 + "_" + suffix，只在注册时拼接一次
+     */
+    public static List<MeasurementSchema> createSchemas(String measurementName, String suffix, TSDataType[] dataTypes) {
+        return createSchemas(measurementName, suffix, dataTypes, SchemaEncoding.DEFAULT);
+    }
+
+    /**
+     * 生成一组序列的 schema，编码和压缩方式按 encoding 指定
+     */
+    public static List<MeasurementSchema> createSchemas(String measurementName, String suffix, TSDataType[] dataTypes, SchemaEncoding encoding) {
+        List<MeasurementSchema> schemas = new ArrayList<>(dataTypes.length);
+        for (TSDataType dataType : dataTypes) {
+            schemas.add(encoding.createSchema(measurementName + "_" + dataType.name() + "_" + suffix, dataType));
+        }
+        return schemas;
+    }
+
+    /**
+     * 一组序列一行编码前的估算字节数
+     */
+    public static double rawBytesPerRow(TSDataType[] dataTypes) {
+        double bytes = 0;
+        for (TSDataType dataType : dataTypes) {
+            switch (dataType) {
+                case BOOLEAN:
+                    bytes += 1;
+                    break;
+                case INT32:
+                case FLOAT:
+                case DATE:
+                    bytes += 4;
+                    break;
+                case INT64:
+                case DOUBLE:
+                case TIMESTAMP:
+                    bytes += 8;
+                    break;
+                case TEXT:
+                    bytes += TEXT_LENGTH * BYTES_PER_CHAR;
+                    break;
+                case STRING:
+                    bytes += STRING_LENGTH * BYTES_PER_CHAR;
+                    break;
+                case BLOB:
+                    bytes += BLOB_LENGTH * BYTES_PER_CHAR;
+                    break;
+                default:
+                    throw new UnsupportedOperationException("不支持的数据类型：" + dataType);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 一组序列一行编码前的估算字节数，每列只计非空的部分，nullRatios 为各列的空值比例
+     */
+    public static double rawBytesPerRow(TSDataType[] dataTypes, double[] nullRatios) {
+        double bytes = 0;
+        for (int i = 0; i < dataTypes.length; i++) {
+            bytes += rawBytesPerRow(new TSDataType[]{dataTypes[i]}) * (1 - nullRatios[i]);
+        }
+        return bytes;
+    }
+
+    /**
+     * 一组序列一行在堆上的估算字节数：编码前的字节数 + Binary 和 LocalDate 的对象开销
+     */
+    public static long heapBytesPerRow(TSDataType[] dataTypes) {
+        double bytes = rawBytesPerRow(dataTypes);
+        for (TSDataType dataType : dataTypes) {
+            if (dataType == TSDataType.TEXT || dataType == TSDataType.STRING || dataType == TSDataType.BLOB) {
+                bytes += BINARY_OVERHEAD;
+            } else if (dataType == TSDataType.DATE) {
+                bytes += DATE_OVERHEAD;
+            }
+        }
+        return (long) Math.ceil(bytes);
+    }
+
+    /**
+     * 在内存预算内一个 Tablet 最多容纳的行数，至少为1行；memoryBudget 小于等于0时不限制
+     *
+     * @param groups       Tablet 中的组数
+     * @param dataTypes    一组序列的数据类型
+     * @param rowNumber    需要写入的总行数
+     * @param memoryBudget 单个 Tablet 的内存预算（字节）
+     */
+    public static int batchRows(int groups, TSDataType[] dataTypes, int rowNumber, long memoryBudget) {
+        if (memoryBudget <= 0 || rowNumber <= 0) {
+            return Math.max(rowNumber, 1);
+        }
+        long rows = memoryBudget / Math.max(1L, groups * heapBytesPerRow(dataTypes));
+        return (int) Math.max(1, Math.min(rowNumber, rows));
+    }
+
+    /**
+     * 写入一组的全部列
+     */
+    public void fillAll(int offset, int index, ValueSource source, int dateBound) {
+        for (int i = 0; i < columnNumber; i++) {
+            fill(offset + i, i, index, source, dateBound);
+        }
+    }
+
+    /**
+     * 把一组各列 [start, end) 行的空值写入位图，Tablet 的第 index 行对应第 start 行；Tablet 需要初始化 bitMaps
+     */
+    public void fillNulls(int offset, NullSource source, int start, int end, int index) {
+        for (int i = 0; i < columnNumber; i++) {
+            source.fill(i, start, end, nulls[offset + i], index);
+        }
+    }
+
+    /**
+     * 按数据类型顺序写入一组中位图未标记为空值的列，先调用 fillNulls
+     */
+    public void fillPresent(int offset, int index, ValueSource source, int dateBound) {
+        int bit = 1 << (index & 7);
+        int position = index >>> 3;
+        for (int i = 0; i < columnNumber; i++) {
+            int column = offset + i;
+            if ((nulls[column][position] & bit) == 0) {
+                fill(column, i, index, source, dateBound);
+            }
+        }
+    }
+
+    /**
+     * 写入第 column 列的一个值，i 为该列在组内的下标
+     */
+    private void fill(int column, int i, int index, ValueSource source, int dateBound) {
+        switch (dataTypes[i]) {
+            case BOOLEAN:
+                booleans[column][index] = source.nextBoolean();
+                break;
+            case INT32:
+                ints[column][index] = source.nextInt32();
+                break;
+            case INT64:
+                longs[column][index] = source.nextInt64();
+                break;
+            case TIMESTAMP:
+                longs[column][index] = source.nextTimestamp();
+                break;
+            case FLOAT:
+                floats[column][index] = source.nextFloat();
+                break;
+            case DOUBLE:
+                doubles[column][index] = source.nextDouble();
+                break;
+            case TEXT:
+                binaries[column][index] = source.nextBinary(TEXT_LENGTH);
+                break;
+            case STRING:
+                binaries[column][index] = source.nextBinary(STRING_LENGTH);
+                break;
+            case BLOB:
+                binaries[column][index] = source.nextBinary(BLOB_LENGTH);
+                break;
+            case DATE:
+                dates[column][index] = source.nextDate(dateBound);
+                break;
+            default:
+                throw new UnsupportedOperationException("不支持的数据类型：" + dataTypes[i]);
+        }
+    }
+}
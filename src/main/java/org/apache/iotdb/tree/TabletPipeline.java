@@ -0,0 +1,323 @@
+package org.apache.iotdb.tree;
+
+import org.apache.iotdb.utils.GeneratorConfig;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 生产者/写入流水线：多个生产者线程填充 Tablet，经有界队列交给单个写入线程，按提交顺序调用 write、writeAligned
+ * <p>
+ * 生成器线程只负责按原来的顺序提交“填充任务 + 写入操作”，写入顺序与生产者线程数无关，生成的文件与不使用流水线时相同；
+ * 同一个序列的多批数据通过 fill 的 previous 串成先后依赖，保证随机数流按行的顺序消费。
+ * 生产者线程数为0时不创建线程，填充和写入都在生成器线程中立即执行
+ */
+public class TabletPipeline {
+
+    /**
+     * 在写入线程中执行的操作，TsFileWriter 不是线程安全的，注册序列也要经过写入线程
+     */
+    public interface WriterAction {
+        void run(BudgetedTsFileWriter writer) throws IOException, WriteProcessException;
+    }
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+    // 通知写入线程结束
+    private static final Entry END = new Entry(null);
+    private static final AtomicInteger PIPELINE_INDEX = new AtomicInteger();
+
+    private final BudgetedTsFileWriter writer;
+    private final int producerNumber;
+    private final ExecutorService producers;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writerThread;
+    // 写完后归还的 Tablet，形状相同的下一批（包括其他设备）直接复用
+    private final TabletPool tabletPool = new TabletPool();
+    // 推迟写入的 Tablet，在下一个 Tablet 之后写入
+    private Entry deferred;
+    // 写入线程或生产者的第一个异常
+    private volatile Throwable error;
+    private boolean finished;
+
+    private final long startTime = System.nanoTime();
+    private final AtomicLong produceNanos = new AtomicLong();
+    // 以下统计只在写入线程中更新（不使用流水线时在生成器线程中更新），结束时 join 写入线程后读取
+    private long writeNanos;
+    private long writerWaitNanos;
+    private long tabletNumber;
+    private long pointNumber;
+    // 以下统计只在生成器线程中更新
+    private long backpressureNanos;
+    private int maxQueueSize;
+    private final PipelineStats stats = new PipelineStats();
+
+    public TabletPipeline(BudgetedTsFileWriter writer, int producerNumber, int queueCapacity) {
+        this.writer = writer;
+        this.producerNumber = producerNumber;
+        if (producerNumber <= 0) {
+            this.producers = null;
+            this.queue = null;
+            this.writerThread = null;
+            return;
+        }
+        String name = "tsfile-pipeline-" + PIPELINE_INDEX.getAndIncrement();
+        AtomicInteger producerIndex = new AtomicInteger();
+        this.producers = Executors.newFixedThreadPool(producerNumber, runnable -> {
+            Thread thread = new Thread(runnable, name + "-producer-" + producerIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runWriter, name + "-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 按 PIPELINE_PRODUCER_NUMBER 和 PIPELINE_QUEUE_CAPACITY 创建流水线
+     */
+    public static TabletPipeline create(BudgetedTsFileWriter writer, GeneratorConfig config) {
+        return new TabletPipeline(writer, config.getPipelineProducerNumber(), config.getPipelineQueueCapacity());
+    }
+
+    /**
+     * 生产者线程数，不使用流水线时为0
+     */
+    public int getProducerNumber() {
+        return producerNumber;
+    }
+
+    /**
+     * 从 TabletPool 中取一个空的 Tablet，只能按列下标填充
+     */
+    public Tablet takeTablet(String deviceId, List<MeasurementSchema> schemas, int maxRowNumber) {
+        return tabletPool.acquire(deviceId, schemas, maxRowNumber);
+    }
+
+    /**
+     * 在生产者线程中执行填充任务，previous 不为 null 时在其完成后执行；不使用流水线时立即执行
+     */
+    public CompletableFuture<Void> fill(CompletableFuture<Void> previous, Runnable task) {
+        Runnable timed = () -> {
+            long start = System.nanoTime();
+            task.run();
+            produceNanos.addAndGet(System.nanoTime() - start);
+        };
+        if (producers == null) {
+            timed.run();
+            return DONE;
+        }
+        return previous == null ? CompletableFuture.runAsync(timed, producers) : previous.thenRunAsync(timed, producers);
+    }
+
+    /**
+     * 在写入线程中按提交顺序执行，如注册序列
+     */
+    public void execute(WriterAction action) throws IOException, WriteProcessException {
+        submit(new Entry(action));
+    }
+
+    /**
+     * 等 fills 全部完成后在写入线程中写入 Tablet，写完后归还 TabletPool；队列已满时阻塞（反压）
+     */
+    public void write(Tablet tablet, boolean aligned, CompletableFuture<?>... fills) throws IOException, WriteProcessException {
+        submit(writeEntry(tablet, aligned, fills));
+        submitDeferred();
+    }
+
+    /**
+     * 推迟写入 Tablet：在下一个 Tablet 之后写入，前后各刷盘一次，成为单独的 chunk group，时间早于它前面的 chunk group（乱序）。
+     * writer 需要先调用 BudgetedTsFileWriter.allowOutOfOrder
+     */
+    public void writeLate(Tablet tablet, boolean aligned, CompletableFuture<?>... fills) throws IOException, WriteProcessException {
+        submitDeferred();
+        deferred = writeEntry(tablet, aligned, fills);
+    }
+
+    private Entry writeEntry(Tablet tablet, boolean aligned, CompletableFuture<?>... fills) {
+        return new Entry(tsFileWriter -> {
+            if (aligned) {
+                tsFileWriter.writeAligned(tablet);
+            } else {
+                tsFileWriter.write(tablet);
+            }
+            tabletNumber++;
+            pointNumber += (long) tablet.rowSize * tablet.getSchemas().size();
+            tabletPool.release(tablet);
+        }, fills);
+    }
+
+    private void submitDeferred() throws IOException, WriteProcessException {
+        if (deferred == null) {
+            return;
+        }
+        Entry entry = deferred;
+        deferred = null;
+        submit(new Entry(BudgetedTsFileWriter::flush));
+        submit(entry);
+        submit(new Entry(BudgetedTsFileWriter::flush));
+    }
+
+    private void submit(Entry entry) throws IOException, WriteProcessException {
+        if (producers == null) {
+            runEntry(entry);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // 写入线程出错后不再消费队列，定时检查避免一直阻塞
+            while (!queue.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+                checkError();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        backpressureNanos += System.nanoTime() - start;
+        maxQueueSize = Math.max(maxQueueSize, queue.size());
+        checkError();
+    }
+
+    private void runWriter() {
+        try {
+            while (true) {
+                long start = System.nanoTime();
+                Entry entry = queue.take();
+                if (entry == END) {
+                    return;
+                }
+                for (CompletableFuture<?> fill : entry.fills) {
+                    fill.get();
+                }
+                writerWaitNanos += System.nanoTime() - start;
+                runEntry(entry);
+            }
+        } catch (ExecutionException e) {
+            error = e.getCause();
+        } catch (Throwable t) {
+            error = t;
+        }
+    }
+
+    private void runEntry(Entry entry) throws IOException, WriteProcessException {
+        long start = System.nanoTime();
+        entry.action.run(writer);
+        writeNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * 等待已提交的 Tablet 全部写完，关闭生产者线程；不关闭 writer
+     */
+    public PipelineStats finish() throws IOException, WriteProcessException {
+        if (finished) {
+            return stats;
+        }
+        finished = true;
+        try {
+            submitDeferred();
+            if (producers != null) {
+                try {
+                    while (writerThread.isAlive() && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+                        checkError();
+                    }
+                    writerThread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                checkError();
+            }
+        } finally {
+            if (producers != null) {
+                producers.shutdownNow();
+            }
+        }
+        stats.record(producerNumber, tabletNumber, tabletPool.getCreatedNumber(), System.nanoTime() - startTime, produceNanos.get(),
+                writeNanos, writerWaitNanos, backpressureNanos, maxQueueSize);
+        return stats;
+    }
+
+    /**
+     * 出错时放弃流水线：丢弃排队和推迟的 Tablet，关闭生产者线程，中断并等待写入线程结束，之后可以安全地关闭 writer；
+     * 不抛出异常，finish 之后调用不做任何事
+     */
+    public void abort() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        deferred = null;
+        if (producers == null) {
+            return;
+        }
+        producers.shutdownNow();
+        // 写入线程可能在等待队列、等待已被丢弃的填充任务或正在写入，清空队列后放入 END 并中断它
+        queue.clear();
+        queue.offer(END);
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 写入的数据点数（含空值），finish 之后读取
+     */
+    public long getPointNumber() {
+        return pointNumber;
+    }
+
+    private void checkError() throws IOException, WriteProcessException {
+        Throwable t = error;
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t == null) {
+            return;
+        }
+        if (producers != null) {
+            producers.shutdownNow();
+        }
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        }
+        if (t instanceof WriteProcessException) {
+            throw (WriteProcessException) t;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new RuntimeException(t);
+    }
+
+    /**
+     * 队列中的一项：等待 fills 完成后执行 action
+     */
+    private static class Entry {
+        private final WriterAction action;
+        private final CompletableFuture<?>[] fills;
+
+        private Entry(WriterAction action, CompletableFuture<?>... fills) {
+            this.action = action;
+            this.fills = fills;
+        }
+    }
+}
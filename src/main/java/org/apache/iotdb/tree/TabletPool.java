@@ -0,0 +1,106 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按形状（各列的数据类型和最大行数）复用 Tablet：归还时只重置 rowSize 和 bitMaps，取出时替换设备名和 schema，值数组原样复用
+ * <p>
+ * 不同设备、不同物理量名但列类型相同的 Tablet 共用同一组值数组，LOOP * 时间序列数量 个设备只需要分配同时在用的几个 Tablet。
+ * 复用时 Tablet 内部按物理量名查列下标的索引不会更新，取出的 Tablet 只能按列下标填充（如 TabletFiller），不能调用 addValue(measurementId, ...)。
+ * 线程安全，可以在一个线程中取出、在另一个线程中写完后归还
+ */
+public class TabletPool {
+    // 形状 -> 空闲的 Tablet
+    private final Map<Shape, ArrayDeque<Tablet>> idle = new HashMap<>();
+    // 新建的 Tablet 数
+    private long createdNumber;
+    // 复用的次数
+    private long reusedNumber;
+
+    /**
+     * 取一个空的 Tablet，有相同形状的空闲 Tablet 时复用，否则新建并初始化 bitMaps
+     */
+    public Tablet acquire(String deviceId, List<MeasurementSchema> schemas, int maxRowNumber) {
+        Shape shape = new Shape(schemas, maxRowNumber);
+        Tablet tablet;
+        synchronized (this) {
+            ArrayDeque<Tablet> tablets = idle.get(shape);
+            tablet = tablets == null ? null : tablets.pollLast();
+            if (tablet == null) {
+                createdNumber++;
+            } else {
+                reusedNumber++;
+            }
+        }
+        if (tablet == null) {
+            tablet = new Tablet(deviceId, schemas, maxRowNumber);
+            tablet.initBitMaps();
+            return tablet;
+        }
+        tablet.setDeviceId(deviceId);
+        tablet.setSchemas(schemas);
+        return tablet;
+    }
+
+    /**
+     * 归还写完的 Tablet，重置 rowSize 和 bitMaps
+     */
+    public void release(Tablet tablet) {
+        tablet.reset();
+        Shape shape = new Shape(tablet.getSchemas(), tablet.getMaxRowNumber());
+        synchronized (this) {
+            idle.computeIfAbsent(shape, key -> new ArrayDeque<>()).addLast(tablet);
+        }
+    }
+
+    public synchronized long getCreatedNumber() {
+        return createdNumber;
+    }
+
+    public synchronized long getReusedNumber() {
+        return reusedNumber;
+    }
+
+    /**
+     * Tablet 的形状：各列的数据类型和最大行数
+     */
+    private static final class Shape {
+        private final TSDataType[] dataTypes;
+        private final int maxRowNumber;
+        private final int hash;
+
+        private Shape(List<MeasurementSchema> schemas, int maxRowNumber) {
+            this.dataTypes = new TSDataType[schemas.size()];
+            for (int column = 0; column < dataTypes.length; column++) {
+                dataTypes[column] = schemas.get(column).getType();
+            }
+            this.maxRowNumber = maxRowNumber;
+            this.hash = 31 * Arrays.hashCode(dataTypes) + maxRowNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Shape)) {
+                return false;
+            }
+            Shape other = (Shape) o;
+            return maxRowNumber == other.maxRowNumber && Arrays.equals(dataTypes, other.dataTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.apache.iotdb.tree;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.read.common.Path;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 树模型tsfile生成器，供生成引擎调度
+ */
+public interface TsFileGenerator {
+
+    /**
+     * 场景名，如：NoSameDevice_NoSameTimeStamp
+     */
+    String getScenario();
+
+    /**
+     * 生成的tsfile文件路径
+     */
+    String getPath();
+
+    /**
+     * 已写入的数据点数（含空值）
+     */
+    long getPointNumber();
+
+    /**
+     * 写入过程中的刷盘统计
+     */
+    FlushStats getFlushStats();
+
+    /**
+     * 写入过程中的生产者/写入流水线统计
+     */
+    PipelineStats getPipelineStats();
+
+    /**
+     * 注册、填充、写入、刷盘、关闭和读取的分阶段统计
+     */
+    PhaseStats getPhaseStats();
+
+    /**
+     * 大规模设备模式的设备统计，未启用时为空
+     */
+    DeviceStats getDeviceStats();
+
+    /**
+     * VERIFY_MODE=CHECKSUM 时的校验结果，未校验时为 null
+     */
+    FileVerifier.Result getVerifyResult();
+
+    /**
+     * 分片清单中当前文件的描述：包含哪些设备、序列和时间范围
+     */
+    Map<String, Object> getManifest();
+
+    /**
+     * 当前分片的全部非对齐或对齐序列路径，设备名与写入时一致，供查询使用
+     */
+    List<Path> getSeries(boolean aligned);
+
+    /**
+     * 生成tsfile文件
+     */
+    void testWrite();
+
+    /**
+     * 写入当前分片的全部非对齐数据，供基准测试单独测量写入路径
+     */
+    void writeNonAligned(BudgetedTsFileWriter tsFileWriter) throws IOException, WriteProcessException;
+
+    /**
+     * 写入当前分片的全部对齐数据，供基准测试单独测量写入路径
+     */
+    void writeAligned(BudgetedTsFileWriter tsFileWriter) throws IOException, WriteProcessException;
+
+    /**
+     * 读取数据
+     */
+    void testReader();
+}
@@ -0,0 +1,694 @@
+package org.apache.iotdb.utils;
+
+import org.apache.iotdb.tree.FileVerifier;
+import org.apache.iotdb.tree.OutputBackend;
+import org.apache.iotdb.tree.Scenario;
+import org.apache.iotdb.tree.SchemaEncoding;
+import org.apache.iotdb.tree.Shard;
+import org.apache.iotdb.value.NullPattern;
+import org.apache.iotdb.value.NullSource;
+import org.apache.iotdb.value.PayloadSource;
+import org.apache.iotdb.value.TimestampPattern;
+import org.apache.iotdb.value.ValueDistribution;
+import org.apache.iotdb.value.ValueSource;
+import org.apache.tsfile.enums.TSDataType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成配置：启动时解析并校验一次，之后只读，可在多个工作线程间共享
+ * <p>
+ * 优先级从低到高：config.properties、系统属性（-DKEY=VALUE）、命令行参数（KEY=VALUE）
+ */
+public final class GeneratorConfig {
+
+    // 单例对象
+    private static volatile GeneratorConfig instance;
+
+    // |-----基本配置-----|
+    private final String position;
+    private final String databaseName;
+
+    // |-----树模型时间序列配置-----|
+    private final List<Scenario> scenarios;
+    private final boolean uniqueDatabaseName;
+    private final boolean uniqueDeviceName;
+    private final String nonAlignedDeviceName;
+    private final String alignedDeviceName;
+    private final String measurementName;
+    private final int nonAlignedSchemasNumber;
+    private final int alignedSchemasNumber;
+    private final TSDataType[] dataTypes;
+    private final SchemaEncoding schemaEncoding;
+
+    // |-----数据配置-----|
+    private final int loop;
+    private final int rowNumber;
+    private final long crossPartitionTimestamp;
+    private final long samePartitionTimestamp;
+    private final boolean negativeTimestamp;
+    private final long crossPartitionSize;
+    private final TimestampPattern.Precision timestampPrecision;
+    private final int rowsPerPartition;
+    private final long timestampInterval;
+    private final int timestampGapEvery;
+    private final long timestampGap;
+    private final int timestampBurstEvery;
+    private final int timestampBurstRows;
+    private final long timestampJitter;
+    private final double outOfOrderRatio;
+    // 同分区、跨分区场景的时间戳生成
+    private final TimestampPattern samePartitionTimestamps;
+    private final TimestampPattern crossPartitionTimestamps;
+    private final boolean containNullValues;
+    private final NullPattern nullPattern;
+    // 按 DATA_TYPES 展开的每列空值比例
+    private final double[] nullRatios;
+    private final int nullBurstLength;
+    private final PayloadSource.Mode payloadMode;
+    private final int payloadCardinality;
+    private final Map<TSDataType, ValueDistribution> valueDistributions;
+    private final long seed;
+
+    // |-----执行配置-----|
+    private final int workerNumber;
+    private final long tabletMemoryBudget;
+    private final long writerMemoryBudget;
+    private final int deviceBatchSize;
+    private final long chunkMetadataMemoryBudget;
+    private final FileVerifier.Mode verifyMode;
+    private final boolean seriesManifest;
+    private final int pipelineProducerNumber;
+    private final int pipelineQueueCapacity;
+    private final int encodeThreadNumber;
+    private final OutputBackend outputBackend;
+    private final boolean runSummary;
+
+    // |-----分片配置-----|
+    private final Shard.Mode shardMode;
+    private final int shardNumber;
+    private final long shardTargetSize;
+
+    // |-----编码扫描-----|
+    private final List<String> sweepEncodings;
+    private final List<String> sweepCompressors;
+
+    // 合并后的全部配置值，供 with() 派生新配置
+    private final Map<String, String> values;
+
+    private GeneratorConfig(Map<String, String> values) {
+        Parser parser = new Parser(values);
+        position = parser.getString("POSITION");
+        databaseName = parser.getString("DATABASE_NAME");
+        scenarios = parser.getScenarios("SCENARIOS");
+        uniqueDatabaseName = parser.getBoolean("IS_UNIQUE_DATABASE_NAME");
+        uniqueDeviceName = parser.getBoolean("IS_UNIQUE_DEVICE_NAME");
+        nonAlignedDeviceName = parser.getString("NON_ALIGNED_DEVICE_NAME");
+        alignedDeviceName = parser.getString("ALIGNED_DEVICE_NAME");
+        measurementName = parser.getString("MEASUREMENT_NAME_TREE");
+        nonAlignedSchemasNumber = parser.getInt("NON_ALIGNED_SCHEMAS_NUMBER", 0);
+        alignedSchemasNumber = parser.getInt("ALIGNED_SCHEMAS_NUMBER", 0);
+        dataTypes = parser.getDataTypes("DATA_TYPES");
+        schemaEncoding = parser.getSchemaEncoding("ENCODING", "COMPRESSOR");
+        loop = parser.getInt("LOOP", 0);
+        rowNumber = parser.getInt("ROW_NUMBER", 0);
+        crossPartitionTimestamp = parser.getLong("CROSS_PARTITION_TIMESTAMP", 0);
+        samePartitionTimestamp = parser.getLong("SAME_PARTITION_TIMESTAMP", Long.MIN_VALUE);
+        negativeTimestamp = parser.getBoolean("NEGATIVE_TIMESTAMP");
+        crossPartitionSize = parser.getLong("CROSS_PARTITION_SIZE", 1);
+        timestampPrecision = parser.getEnum("TIMESTAMP_PRECISION", TimestampPattern.Precision.class);
+        rowsPerPartition = parser.getInt("ROWS_PER_PARTITION", 1);
+        timestampInterval = parser.getLong("TIMESTAMP_INTERVAL", 1);
+        timestampGapEvery = parser.getInt("TIMESTAMP_GAP_EVERY", 0);
+        timestampGap = parser.getLong("TIMESTAMP_GAP", 0);
+        timestampBurstEvery = parser.getInt("TIMESTAMP_BURST_EVERY", 0);
+        timestampBurstRows = parser.getInt("TIMESTAMP_BURST_ROWS", 0);
+        timestampJitter = parser.getLong("TIMESTAMP_JITTER", 0);
+        outOfOrderRatio = parser.getDouble("OUT_OF_ORDER_RATIO", 0, 1);
+        containNullValues = parser.getBoolean("IS_CONTAIN_NULL_VALUES");
+        nullPattern = parser.getEnum("NULL_PATTERN", NullPattern.class);
+        nullRatios = parser.getNullRatios("NULL_RATIO", dataTypes);
+        nullBurstLength = parser.getInt("NULL_BURST_LENGTH", 1);
+        payloadMode = parser.getEnum("PAYLOAD_MODE", PayloadSource.Mode.class);
+        payloadCardinality = parser.getInt("PAYLOAD_CARDINALITY", 1);
+        valueDistributions = parser.getValueDistributions("VALUE_DISTRIBUTION");
+        try {
+            seed = ValueSource.resolveSeed(values.get("SEED"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("配置项 SEED 不是整数：" + values.get("SEED"), e);
+        }
+        samePartitionTimestamps = createTimestampPattern(false);
+        crossPartitionTimestamps = createTimestampPattern(true);
+        workerNumber = parser.getInt("WORKER_NUMBER", Integer.MIN_VALUE);
+        tabletMemoryBudget = parser.getLong("TABLET_MEMORY_BUDGET", 0) * 1024 * 1024;
+        writerMemoryBudget = parser.getLong("WRITER_MEMORY_BUDGET", 0) * 1024 * 1024;
+        deviceBatchSize = parser.getInt("DEVICE_BATCH_SIZE", 0);
+        chunkMetadataMemoryBudget = parser.getLong("CHUNK_METADATA_MEMORY_BUDGET", 0) * 1024 * 1024;
+        verifyMode = parser.getEnum("VERIFY_MODE", FileVerifier.Mode.class);
+        seriesManifest = parser.getBoolean("SERIES_MANIFEST");
+        pipelineProducerNumber = parser.getInt("PIPELINE_PRODUCER_NUMBER", 0);
+        pipelineQueueCapacity = parser.getInt("PIPELINE_QUEUE_CAPACITY", 1);
+        encodeThreadNumber = parser.getInt("ENCODE_THREAD_NUMBER", 0);
+        outputBackend = parser.getOutputBackend();
+        runSummary = parser.getBoolean("RUN_SUMMARY");
+        shardMode = parser.getEnum("SHARD_MODE", Shard.Mode.class);
+        shardNumber = parser.getInt("SHARD_NUMBER", 1);
+        shardTargetSize = parser.getLong("SHARD_TARGET_SIZE", 1);
+        sweepEncodings = parser.getList("SWEEP_ENCODINGS");
+        sweepCompressors = parser.getList("SWEEP_COMPRESSORS");
+        // 逐个组合校验，避免扫描到一半才发现配置错误
+        for (String encoding : sweepEncodings) {
+            parser.parseSchemaEncoding("SWEEP_ENCODINGS", encoding, "");
+        }
+        for (String compressor : sweepCompressors) {
+            parser.parseSchemaEncoding("SWEEP_COMPRESSORS", "", compressor);
+        }
+        this.values = values;
+    }
+
+    /**
+     * 使用命令行参数初始化，只能在启动时调用一次
+     */
+    public static synchronized GeneratorConfig initialize(String[] args) {
+        if (instance != null) {
+            throw new IllegalStateException("配置已经初始化");
+        }
+        instance = load(args);
+        return instance;
+    }
+
+    /**
+     * 提供全局访问点，未初始化时只使用配置文件和系统属性
+     */
+    public static GeneratorConfig getInstance() {
+        GeneratorConfig config = instance;
+        if (config == null) {
+            synchronized (GeneratorConfig.class) {
+                if (instance == null) {
+                    instance = load(new String[0]);
+                }
+                config = instance;
+            }
+        }
+        return config;
+    }
+
+    /**
+     * 依次合并配置文件、系统属性和命令行参数
+     */
+    public static GeneratorConfig load(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        ReadConfig readConfig = ReadConfig.getInstance();
+        for (String key : readConfig.getKeys()) {
+            values.put(key, readConfig.getConfigValue(key));
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (values.containsKey(key)) {
+                values.put(key, System.getProperty(key));
+            }
+        }
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("命令行参数格式应为 KEY=VALUE：" + arg);
+            }
+            String key = arg.substring(0, index).trim();
+            if (!values.containsKey(key)) {
+                throw new IllegalArgumentException("未知的配置项：" + key);
+            }
+            values.put(key, arg.substring(index + 1));
+        }
+        return new GeneratorConfig(values);
+    }
+
+    /**
+     * 在当前配置上覆盖若干 KEY=VALUE，得到新的配置，如编码扫描中的每个组合
+     */
+    public GeneratorConfig with(String... overrides) {
+        Map<String, String> merged = new LinkedHashMap<>(values);
+        for (String override : overrides) {
+            int index = override.indexOf('=');
+            String key = override.substring(0, index).trim();
+            if (!merged.containsKey(key)) {
+                throw new IllegalArgumentException("未知的配置项：" + key);
+            }
+            merged.put(key, override.substring(index + 1));
+        }
+        return new GeneratorConfig(merged);
+    }
+
+    /**
+     * 合并后的原始配置值
+     */
+    public String getValue(String key) {
+        return values.get(key);
+    }
+
+    public String getPosition() {
+        return position;
+    }
+
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    /**
+     * 要生成的场景，按配置顺序
+     */
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    public boolean isUniqueDatabaseName() {
+        return uniqueDatabaseName;
+    }
+
+    public boolean isUniqueDeviceName() {
+        return uniqueDeviceName;
+    }
+
+    public String getNonAlignedDeviceName() {
+        return nonAlignedDeviceName;
+    }
+
+    public String getAlignedDeviceName() {
+        return alignedDeviceName;
+    }
+
+    public String getMeasurementName() {
+        return measurementName;
+    }
+
+    public int getNonAlignedSchemasNumber() {
+        return nonAlignedSchemasNumber;
+    }
+
+    public int getAlignedSchemasNumber() {
+        return alignedSchemasNumber;
+    }
+
+    /**
+     * 每个 执行次数_时间序列编号 的一组序列的数据类型（返回副本）
+     */
+    public TSDataType[] getDataTypes() {
+        return dataTypes.clone();
+    }
+
+    /**
+     * 按数据类型指定的编码和压缩方式
+     */
+    public SchemaEncoding getSchemaEncoding() {
+        return schemaEncoding;
+    }
+
+    public int getLoop() {
+        return loop;
+    }
+
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public long getCrossPartitionTimestamp() {
+        return crossPartitionTimestamp;
+    }
+
+    public long getSamePartitionTimestamp() {
+        return samePartitionTimestamp;
+    }
+
+    public boolean isNegativeTimestamp() {
+        return negativeTimestamp;
+    }
+
+    public long getCrossPartitionSize() {
+        return crossPartitionSize;
+    }
+
+    public TimestampPattern.Precision getTimestampPrecision() {
+        return timestampPrecision;
+    }
+
+    public double getOutOfOrderRatio() {
+        return outOfOrderRatio;
+    }
+
+    /**
+     * 时间戳生成，crossPartition 为 true 时每个时间分区放 ROWS_PER_PARTITION 行，否则全部在 SAME_PARTITION_TIMESTAMP 所在的分区
+     */
+    public TimestampPattern getTimestampPattern(boolean crossPartition) {
+        return crossPartition ? crossPartitionTimestamps : samePartitionTimestamps;
+    }
+
+    private TimestampPattern createTimestampPattern(boolean crossPartition) {
+        long start = crossPartition
+                ? (negativeTimestamp ? -crossPartitionTimestamp : crossPartitionTimestamp)
+                : samePartitionTimestamp;
+        try {
+            return new TimestampPattern(timestampPrecision, crossPartition, start, crossPartitionSize, rowsPerPartition,
+                    timestampInterval, timestampGapEvery, timestampGap, timestampBurstEvery, timestampBurstRows, timestampJitter,
+                    outOfOrderRatio, seed);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new IllegalArgumentException("时间戳配置不支持：" + e.getMessage(), e);
+        }
+    }
+
+    public boolean isContainNullValues() {
+        return containNullValues;
+    }
+
+    public NullPattern getNullPattern() {
+        return nullPattern;
+    }
+
+    /**
+     * 每列平均的空值比例，顺序与 DATA_TYPES 一致：不含空值时为0，ALTERNATE 为0.5，其余为 NULL_RATIO 中的比例
+     */
+    public double[] getNullRatios() {
+        double[] ratios = new double[dataTypes.length];
+        if (containNullValues) {
+            for (int i = 0; i < ratios.length; i++) {
+                ratios[i] = nullPattern == NullPattern.ALTERNATE ? 0.5 : nullRatios[i];
+            }
+        }
+        return ratios;
+    }
+
+    /**
+     * 一组序列的空值生成，随机数从 source 中拆分；不含空值时返回 null
+     */
+    public NullSource createNullSource(ValueSource source) {
+        return containNullValues ? new NullSource(nullPattern, nullRatios, nullBurstLength, source.splitRandom()) : null;
+    }
+
+    public PayloadSource.Mode getPayloadMode() {
+        return payloadMode;
+    }
+
+    public int getPayloadCardinality() {
+        return payloadCardinality;
+    }
+
+    /**
+     * 按数据类型指定的数值取值分布，没有的类型为 UNIFORM
+     */
+    public Map<TSDataType, ValueDistribution> getValueDistributions() {
+        return valueDistributions;
+    }
+
+    /**
+     * 按种子、PAYLOAD_MODE 和 VALUE_DISTRIBUTION 创建的随机值生成，相同配置的生成器共用预生成的 TEXT、STRING、BLOB 取值
+     */
+    public ValueSource createValueSource() {
+        return new ValueSource(seed, PayloadSource.of(payloadMode, payloadCardinality, seed), valueDistributions);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWorkerNumber() {
+        return workerNumber;
+    }
+
+    /**
+     * 单个 Tablet 的内存预算（字节），0表示不限制
+     */
+    public long getTabletMemoryBudget() {
+        return tabletMemoryBudget;
+    }
+
+    /**
+     * TsFileWriter 缓冲的内存预算（字节），0表示由 TsFileWriter 自己决定何时刷盘
+     */
+    public long getWriterMemoryBudget() {
+        return writerMemoryBudget;
+    }
+
+    /**
+     * 大规模设备模式下每批的设备数，0表示不启用
+     */
+    public int getDeviceBatchSize() {
+        return deviceBatchSize;
+    }
+
+    /**
+     * 大规模设备模式下 chunk 元数据的内存预算（字节），0表示不转存
+     */
+    public long getChunkMetadataMemoryBudget() {
+        return chunkMetadataMemoryBudget;
+    }
+
+    public FileVerifier.Mode getVerifyMode() {
+        return verifyMode;
+    }
+
+    public boolean isSeriesManifest() {
+        return seriesManifest;
+    }
+
+    /**
+     * 每个文件填充 Tablet 的生产者线程数，0表示在生成器线程中边填充边写入
+     */
+    public int getPipelineProducerNumber() {
+        return pipelineProducerNumber;
+    }
+
+    /**
+     * 生产者与写入线程之间最多排队的 Tablet 数
+     */
+    public int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    /**
+     * Tablet 和 TsFileWriter 缓冲的估算峰值内存（字节）：workerNumber * (同时存在的 Tablet 数 * TABLET_MEMORY_BUDGET + WRITER_MEMORY_BUDGET)。
+     * 使用流水线时每个文件同时存在 PIPELINE_QUEUE_CAPACITY 个排队、PIPELINE_PRODUCER_NUMBER 个填充中和1个写入中的 Tablet，否则只有1个；
+     * 预算为0的一项不受限制，不计入
+     */
+    public long estimatePeakMemory(int workerNumber) {
+        long tablets = pipelineProducerNumber > 0 ? pipelineQueueCapacity + pipelineProducerNumber + 1 : 1;
+        return workerNumber * (tablets * tabletMemoryBudget + writerMemoryBudget);
+    }
+
+    /**
+     * 每个文件编码、压缩 chunk 的线程数，0表示在写入线程中编码
+     */
+    public int getEncodeThreadNumber() {
+        return encodeThreadNumber;
+    }
+
+    /**
+     * 输出方式和 fsync 策略
+     */
+    public OutputBackend getOutputBackend() {
+        return outputBackend;
+    }
+
+    /**
+     * 运行结束时是否输出 POSITION/TreeTsFileV3.summary.json
+     */
+    public boolean isRunSummary() {
+        return runSummary;
+    }
+
+    public Shard.Mode getShardMode() {
+        return shardMode;
+    }
+
+    public int getShardNumber() {
+        return shardNumber;
+    }
+
+    public long getShardTargetSize() {
+        return shardTargetSize;
+    }
+
+    /**
+     * 编码扫描的编码列表，为空时只使用 ENCODING
+     */
+    public List<String> getSweepEncodings() {
+        return sweepEncodings;
+    }
+
+    /**
+     * 编码扫描的压缩方式列表，为空时只使用 COMPRESSOR
+     */
+    public List<String> getSweepCompressors() {
+        return sweepCompressors;
+    }
+
+    /**
+     * 是否为编码扫描模式
+     */
+    public boolean isSweep() {
+        return !sweepEncodings.isEmpty() || !sweepCompressors.isEmpty();
+    }
+
+    /**
+     * 解析并校验配置值，出错时指明配置项
+     */
+    private static class Parser {
+        private final Map<String, String> values;
+
+        private Parser(Map<String, String> values) {
+            this.values = values;
+        }
+
+        private String getString(String key) {
+            String value = values.get(key);
+            if (value == null) {
+                throw new IllegalArgumentException("缺少配置项：" + key);
+            }
+            return value.trim();
+        }
+
+        private boolean getBoolean(String key) {
+            String value = getString(key);
+            if ("true".equalsIgnoreCase(value)) {
+                return true;
+            }
+            if ("false".equalsIgnoreCase(value)) {
+                return false;
+            }
+            throw new IllegalArgumentException("配置项 " + key + " 应为 true 或 false：" + value);
+        }
+
+        private int getInt(String key, int min) {
+            long value = getLong(key, min);
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("配置项 " + key + " 超出 int 范围：" + value);
+            }
+            return (int) value;
+        }
+
+        private double getDouble(String key, double min, double max) {
+            String value = getString(key);
+            double result;
+            try {
+                result = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("配置项 " + key + " 不是数字：" + value, e);
+            }
+            if (result < min || result > max) {
+                throw new IllegalArgumentException("配置项 " + key + " 应在 " + min + " ~ " + max + " 之间：" + value);
+            }
+            return result;
+        }
+
+        private long getLong(String key, long min) {
+            String value = getString(key);
+            long result;
+            try {
+                result = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("配置项 " + key + " 不是整数：" + value, e);
+            }
+            if (result < min) {
+                throw new IllegalArgumentException("配置项 " + key + " 不能小于 " + min + "：" + value);
+            }
+            return result;
+        }
+
+        private TSDataType[] getDataTypes(String key) {
+            String[] names = getString(key).split(",");
+            TSDataType[] result = new TSDataType[names.length];
+            for (int i = 0; i < names.length; i++) {
+                result[i] = getEnum(key, names[i].trim(), TSDataType.class);
+                switch (result[i]) {
+                    case BOOLEAN:
+                    case INT32:
+                    case INT64:
+                    case FLOAT:
+                    case DOUBLE:
+                    case TEXT:
+                    case STRING:
+                    case BLOB:
+                    case TIMESTAMP:
+                    case DATE:
+                        break;
+                    default:
+                        throw new IllegalArgumentException("配置项 " + key + " 不支持的数据类型：" + names[i]);
+                }
+            }
+            return result;
+        }
+
+        private List<String> getList(String key) {
+            List<String> result = new ArrayList<>();
+            for (String item : getString(key).split(";")) {
+                if (!item.trim().isEmpty()) {
+                    result.add(item.trim());
+                }
+            }
+            return result;
+        }
+
+        private SchemaEncoding getSchemaEncoding(String encodingKey, String compressorKey) {
+            return parseSchemaEncoding(encodingKey + "、" + compressorKey, getString(encodingKey), getString(compressorKey));
+        }
+
+        private SchemaEncoding parseSchemaEncoding(String key, String encoding, String compressor) {
+            try {
+                return SchemaEncoding.parse(encoding, compressor);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("配置项 " + key + " 不支持：" + e.getMessage(), e);
+            }
+        }
+
+        private OutputBackend getOutputBackend() {
+            OutputBackend.Mode mode = getEnum("OUTPUT_MODE", OutputBackend.Mode.class);
+            long bufferSize = getLong("OUTPUT_BUFFER_SIZE", 1) * 1024 * 1024;
+            if (bufferSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("配置项 OUTPUT_BUFFER_SIZE 不能超过 2047 MB：" + bufferSize / 1024 / 1024);
+            }
+            OutputBackend.FsyncPolicy fsyncPolicy = getEnum("FSYNC_POLICY", OutputBackend.FsyncPolicy.class);
+            long fsyncInterval = getLong("FSYNC_INTERVAL", 1) * 1024 * 1024;
+            try {
+                return new OutputBackend(mode, (int) bufferSize, fsyncPolicy, fsyncInterval);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("配置项 OUTPUT_MODE、FSYNC_POLICY 不支持：" + e.getMessage(), e);
+            }
+        }
+
+        private List<Scenario> getScenarios(String key) {
+            try {
+                return Collections.unmodifiableList(Scenario.parse(getString(key)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("配置项 " + key + " 不支持：" + e.getMessage(), e);
+            }
+        }
+
+        private double[] getNullRatios(String key, TSDataType[] dataTypes) {
+            try {
+                return NullPattern.parseRatios(getString(key), dataTypes);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("配置项 " + key + " 不支持：" + e.getMessage(), e);
+            }
+        }
+
+        private Map<TSDataType, ValueDistribution> getValueDistributions(String key) {
+            try {
+                return Collections.unmodifiableMap(ValueDistribution.parse(getString(key)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("配置项 " + key + " 不支持：" + e.getMessage(), e);
+            }
+        }
+
+        private <E extends Enum<E>> E getEnum(String key, Class<E> type) {
+            return getEnum(key, getString(key), type);
+        }
+
+        private <E extends Enum<E>> E getEnum(String key, String value, Class<E> type) {
+            try {
+                return Enum.valueOf(type, value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("配置项 " + key + " 不支持：" + value, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.apache.iotdb.utils;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 简单的JSON序列化，只支持 Map、Collection、字符串、数值和布尔值，用于输出清单和报告
+ */
+public class JsonUtils {
+
+    private JsonUtils() {
+    }
+
+    /**
+     * 序列化为带缩进的JSON字符串
+     */
+    public static String toJson(Object value) {
+        return toJson(value, 0);
+    }
+
+    /**
+     * 序列化为带缩进的JSON字符串，第一行之后的各行按 indent 层缩进，用于逐项流式写出的外层结构中
+     */
+    public static String toJson(Object value, int indent) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value, indent);
+        return sb.toString();
+    }
+
+    private static void write(StringBuilder sb, Object value, int indent) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.isEmpty()) {
+                sb.append("{}");
+                return;
+            }
+            sb.append("{\n");
+            Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<?, ?> entry = iterator.next();
+                indent(sb, indent + 1);
+                writeString(sb, String.valueOf(entry.getKey()));
+                sb.append(": ");
+                write(sb, entry.getValue(), indent + 1);
+                sb.append(iterator.hasNext() ? ",\n" : "\n");
+            }
+            indent(sb, indent);
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            if (collection.isEmpty()) {
+                sb.append("[]");
+                return;
+            }
+            sb.append("[\n");
+            Iterator<?> iterator = collection.iterator();
+            while (iterator.hasNext()) {
+                indent(sb, indent + 1);
+                write(sb, iterator.next(), indent + 1);
+                sb.append(iterator.hasNext() ? ",\n" : "\n");
+            }
+            indent(sb, indent);
+            sb.append(']');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            writeString(sb, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void indent(StringBuilder sb, int indent) {
+        for (int i = 0; i < indent; i++) {
+            sb.append("  ");
+        }
+    }
+}
@@ -3,17 +3,15 @@ package org.apache.iotdb.utils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * 用于读取配置文件
  */
 public class ReadConfig {
 
-    // 单例对象
-    private static ReadConfig instance;
-
     // 存储配置数据
-    private Properties config;
+    private final Properties config;
 
     // 私有构造函数，防止外部实例化
     private ReadConfig() {
@@ -33,16 +31,23 @@ public class ReadConfig {
         }
     }
 
+    // 单例对象，由类加载保证线程安全
+    private static class Holder {
+        private static final ReadConfig INSTANCE = new ReadConfig();
+    }
+
     // 提供全局访问点
     public static ReadConfig getInstance() {
-        if (instance == null) {
-            instance = new ReadConfig();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     // 获取配置值
     public String getConfigValue(String key) {
         return config.getProperty(key);
     }
-}
\ No newline at end of file
+
+    // 获取所有配置项
+    public Set<String> getKeys() {
+        return config.stringPropertyNames();
+    }
+}
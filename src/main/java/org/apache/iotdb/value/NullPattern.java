@@ -0,0 +1,54 @@
+package org.apache.iotdb.value;
+
+import org.apache.tsfile.enums.TSDataType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 空值的分布方式，由 NULL_PATTERN 选择，每列的空值比例由 NULL_RATIO 按数据类型指定，见 NullSource
+ */
+public enum NullPattern {
+    // 偶数行后一半列为空，奇数行前一半列为空，比例固定为50%，不使用 NULL_RATIO
+    ALTERNATE,
+    // 每个单元格按所在列的比例独立为空
+    UNIFORM,
+    // 空值成段出现，空值段平均 NULL_BURST_LENGTH 行，非空段的平均长度按所在列的比例推算
+    BURST;
+
+    /**
+     * 解析 NULL_RATIO 并展开为一组序列每列的空值比例：不带类型的比例作用于全部类型，带类型的如 TEXT:0.9 优先，
+     * 都没有指定的类型为0；比例不在 [0, 1] 内或格式错误时抛出 IllegalArgumentException
+     */
+    public static double[] parseRatios(String value, TSDataType[] dataTypes) {
+        double defaultRatio = 0;
+        Map<TSDataType, Double> typed = new EnumMap<>(TSDataType.class);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                String entry = item.trim().toUpperCase();
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                int index = entry.indexOf(':');
+                if (index < 0) {
+                    defaultRatio = parseRatio(entry);
+                } else {
+                    typed.put(TSDataType.valueOf(entry.substring(0, index).trim()), parseRatio(entry.substring(index + 1).trim()));
+                }
+            }
+        }
+        double[] ratios = new double[dataTypes.length];
+        for (int i = 0; i < dataTypes.length; i++) {
+            ratios[i] = typed.getOrDefault(dataTypes[i], defaultRatio);
+        }
+        return ratios;
+    }
+
+    private static double parseRatio(String value) {
+        double ratio = Double.parseDouble(value);
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("空值比例应在 0~1 之间：" + value);
+        }
+        return ratio;
+    }
+}
@@ -0,0 +1,170 @@
+package org.apache.iotdb.value;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 空值生成：按 NullPattern 和每列的空值比例直接写入 Tablet 空值位图的字节数组，连续的一段整字节填充，只有段的首尾按掩码合并，
+ * 不逐个单元格调用 BitMap.mark。位图中第 i 行对应第 i / 8 个字节的第 i % 8 位，与 TsFile 的 BitMap 一致
+ * <p>
+ * 每组序列一个实例，列为组内下标，顺序与 DATA_TYPES 一致。每列使用独立的随机数流并按行的顺序推进，
+ * 生成结果与 Tablet 的分批和线程数无关。非线程安全，同一组的各批依次填充，不同的列可以由不同的线程填充
+ */
+public class NullSource {
+    private final NullPattern pattern;
+    // 每列的空值比例
+    private final double[] ratios;
+    // BURST 空值段的平均行数
+    private final int burstLength;
+    // 每列的随机数流
+    private final SplittableRandom[] randoms;
+    // 每列下一个事件所在的行，-1表示还没有开始：UNIFORM 为下一个空值（比例大于0.5时为下一个非空值），BURST 为当前段之后的第一行
+    private final long[] next;
+    // BURST 每列当前段是否为空值
+    private final boolean[] inNull;
+
+    public NullSource(NullPattern pattern, double[] ratios, int burstLength, SplittableRandom random) {
+        this.pattern = pattern;
+        this.ratios = ratios;
+        this.burstLength = burstLength;
+        this.randoms = new SplittableRandom[ratios.length];
+        for (int column = 0; column < ratios.length; column++) {
+            randoms[column] = random.split();
+        }
+        this.next = new long[ratios.length];
+        Arrays.fill(next, -1);
+        this.inNull = new boolean[ratios.length];
+    }
+
+    /**
+     * 把第 column 列 [start, end) 行的空值写入 bits 中从 index 开始的位，这些位原来都为0
+     */
+    public void fill(int column, int start, int end, byte[] bits, int index) {
+        if (start >= end) {
+            return;
+        }
+        switch (pattern) {
+            case ALTERNATE:
+                fillAlternate(column, start, end, bits, index);
+                break;
+            case UNIFORM:
+                fillUniform(column, start, end, bits, index);
+                break;
+            case BURST:
+                fillBurst(column, start, end, bits, index);
+                break;
+            default:
+                throw new UnsupportedOperationException("不支持的空值分布：" + pattern);
+        }
+    }
+
+    /**
+     * 前一半列在奇数行为空，后一半列在偶数行为空，整段按 0x55 或 0xAA 填充
+     */
+    private void fillAlternate(int column, int start, int end, byte[] bits, int index) {
+        int nullParity = column >= ratios.length / 2 ? 0 : 1;
+        // 位图中第 index + i 位对应第 start + i 行，空值所在位的奇偶性
+        boolean evenBits = ((nullParity + index - start) & 1) == 0;
+        fill(bits, index, index + end - start, evenBits ? 0x55 : 0xAA);
+    }
+
+    /**
+     * 按几何分布跳到下一个空值，只需为空值抽样；比例大于0.5时先整段置为空值，再跳到下一个非空值
+     */
+    private void fillUniform(int column, int start, int end, byte[] bits, int index) {
+        double ratio = ratios[column];
+        if (ratio <= 0) {
+            return;
+        }
+        if (ratio >= 1) {
+            fill(bits, index, index + end - start, 0xFF);
+            return;
+        }
+        boolean dense = ratio > 0.5;
+        double eventRatio = dense ? 1 - ratio : ratio;
+        SplittableRandom random = randoms[column];
+        if (next[column] < 0) {
+            next[column] = start + gap(random, eventRatio);
+        }
+        if (dense) {
+            fill(bits, index, index + end - start, 0xFF);
+        }
+        while (next[column] < end) {
+            int position = (int) (index + next[column] - start);
+            if (dense) {
+                bits[position >>> 3] &= (byte) ~(1 << (position & 7));
+            } else {
+                bits[position >>> 3] |= (byte) (1 << (position & 7));
+            }
+            next[column] += 1 + gap(random, eventRatio);
+        }
+    }
+
+    /**
+     * 空值段和非空段交替，每段整段填充
+     */
+    private void fillBurst(int column, int start, int end, byte[] bits, int index) {
+        double ratio = ratios[column];
+        if (ratio <= 0) {
+            return;
+        }
+        if (ratio >= 1) {
+            fill(bits, index, index + end - start, 0xFF);
+            return;
+        }
+        SplittableRandom random = randoms[column];
+        if (next[column] < 0) {
+            inNull[column] = random.nextDouble() < ratio;
+            next[column] = start + runLength(random, column);
+        }
+        long row = start;
+        while (row < end) {
+            if (next[column] <= row) {
+                inNull[column] = !inNull[column];
+                next[column] += runLength(random, column);
+                continue;
+            }
+            long until = Math.min(next[column], end);
+            if (inNull[column]) {
+                fill(bits, (int) (index + row - start), (int) (index + until - start), 0xFF);
+            }
+            row = until;
+        }
+    }
+
+    /**
+     * 当前段的行数，空值段平均 burstLength 行，非空段平均 burstLength * (1 - ratio) / ratio 行，至少1行
+     */
+    private long runLength(SplittableRandom random, int column) {
+        double mean = inNull[column] ? burstLength : burstLength * (1 - ratios[column]) / ratios[column];
+        return mean <= 1 ? 1 : 1 + gap(random, 1 / mean);
+    }
+
+    /**
+     * 几何分布：每行以概率 ratio 发生事件时，下一个事件之前的行数
+     */
+    private static long gap(SplittableRandom random, double ratio) {
+        double gap = Math.floor(Math.log(1 - random.nextDouble()) / Math.log1p(-ratio));
+        return (long) Math.min(gap, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 把 bits 中 [from, to) 位按 pattern 重复的字节写入：中间的整字节直接填充，首尾不足一个字节的部分按掩码合并
+     */
+    private static void fill(byte[] bits, int from, int to, int pattern) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 3;
+        int last = (to - 1) >>> 3;
+        int headMask = (0xFF << (from & 7)) & 0xFF;
+        int tailMask = 0xFF >>> (7 - ((to - 1) & 7));
+        if (first == last) {
+            bits[first] |= (byte) (pattern & headMask & tailMask);
+            return;
+        }
+        bits[first] |= (byte) (pattern & headMask);
+        Arrays.fill(bits, first + 1, last, (byte) pattern);
+        bits[last] |= (byte) (pattern & tailMask);
+    }
+}
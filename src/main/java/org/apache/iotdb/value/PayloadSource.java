@@ -0,0 +1,124 @@
+package org.apache.iotdb.value;
+
+import org.apache.tsfile.utils.Binary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TEXT、STRING、BLOB 列的取值来源，由 PAYLOAD_MODE 选择
+ * <p>
+ * RANDOM 每个单元格逐字符生成；SLICE 从一段预先生成的随机字符中截取；POOL 从预先生成的 PAYLOAD_CARDINALITY 个值中选取，
+ * 同一列的取值基数受控，可以用来测试字典编码。SLICE、POOL 的预生成数据只由种子决定，相同种子的生成器共用同一份，只读，线程安全
+ */
+public abstract class PayloadSource {
+
+    /**
+     * 取值方式
+     */
+    public enum Mode {
+        // 每个单元格逐字符随机生成
+        RANDOM,
+        // 从预先生成的随机字符中截取，每个单元格一次复制
+        SLICE,
+        // 从预先生成的固定个数的值中选取，不复制
+        POOL
+    }
+
+    // SLICE 预生成的字符数，约 1.3 MB
+    private static final int SLICE_CHARS = 1 << 20;
+
+    public static final PayloadSource RANDOM = new PayloadSource() {
+        @Override
+        Binary next(ValueSource source, int length) {
+            return source.randomBinary(length);
+        }
+    };
+
+    // 模式_基数_种子 -> 预生成的取值来源
+    private static final Map<String, PayloadSource> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 相同参数返回同一个实例
+     */
+    public static PayloadSource of(Mode mode, int cardinality, long seed) {
+        switch (mode) {
+            case RANDOM:
+                return RANDOM;
+            case SLICE:
+                return CACHE.computeIfAbsent(mode + "_" + seed, key -> new Slice(seed));
+            case POOL:
+                return CACHE.computeIfAbsent(mode + "_" + cardinality + "_" + seed, key -> new Pool(cardinality, seed));
+            default:
+                throw new UnsupportedOperationException("不支持的取值方式：" + mode);
+        }
+    }
+
+    /**
+     * 长度为 length 个字符的值，随机选择使用 source 的随机数流
+     */
+    abstract Binary next(ValueSource source, int length);
+
+    /**
+     * 预先生成一段随机字符的UTF-8编码和每个字符的起始位置，按字符截取，不会截断多字节字符
+     */
+    private static final class Slice extends PayloadSource {
+        private final byte[] bytes;
+        // 第 i 个字符在 bytes 中的起始位置，最后一个元素为 bytes.length
+        private final int[] offsets;
+
+        private Slice(long seed) {
+            String chars = new ValueSource(seed).derive("payloadSlice").nextString(SLICE_CHARS);
+            bytes = chars.getBytes(StandardCharsets.UTF_8);
+            offsets = new int[SLICE_CHARS + 1];
+            int offset = 0;
+            for (int i = 0; i < SLICE_CHARS; i++) {
+                offsets[i] = offset;
+                char c = chars.charAt(i);
+                offset += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            }
+            offsets[SLICE_CHARS] = offset;
+        }
+
+        @Override
+        Binary next(ValueSource source, int length) {
+            if (length > SLICE_CHARS) {
+                return source.randomBinary(length);
+            }
+            int start = source.nextIndex(SLICE_CHARS - length + 1);
+            return new Binary(Arrays.copyOfRange(bytes, offsets[start], offsets[start + length]));
+        }
+    }
+
+    /**
+     * 每种长度预先生成 cardinality 个值，单元格之间共用同一个 Binary
+     */
+    private static final class Pool extends PayloadSource {
+        private final int cardinality;
+        private final long seed;
+        // 字符数 -> 预生成的值
+        private final Map<Integer, Binary[]> values = new ConcurrentHashMap<>();
+
+        private Pool(int cardinality, long seed) {
+            this.cardinality = cardinality;
+            this.seed = seed;
+        }
+
+        @Override
+        Binary next(ValueSource source, int length) {
+            Binary[] pool = values.computeIfAbsent(length, this::generate);
+            return pool[source.nextIndex(cardinality)];
+        }
+
+        private Binary[] generate(int length) {
+            ValueSource source = new ValueSource(seed).derive("payloadPool", length);
+            Binary[] pool = new Binary[cardinality];
+            for (int i = 0; i < cardinality; i++) {
+                pool[i] = source.randomBinary(length);
+            }
+            return pool;
+        }
+    }
+}
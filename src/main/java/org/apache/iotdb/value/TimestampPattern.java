@@ -0,0 +1,186 @@
+package org.apache.iotdb.value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 时间戳生成：第 row 行的时间戳只由行号和种子决定，可以随机访问，分片、流水线按任意顺序取值都得到相同的结果
+ * <p>
+ * 同分区时所有行从初始时间戳开始按间隔递增；跨分区时每个时间分区依次放 rowsPerPartition 行，每个分区从分区起点开始按间隔递增。
+ * 行间隔之外可以周期性地插入空档（gap）和突发（burst，连续若干行间隔为1个时间单位），再叠加随机抖动（jitter）。
+ * 抖动不超过到下一行的间隔，时间戳始终严格递增；乱序只发生在 Tablet 的写入顺序上，由 isLate 决定哪些批次推迟写入
+ */
+public class TimestampPattern {
+
+    /**
+     * 时间戳精度，毫秒为单位的配置值乘以 factor 换算成该精度
+     */
+    public enum Precision {
+        MS(1),
+        US(1000),
+        NS(1000000);
+
+        private final long factor;
+
+        Precision(long factor) {
+            this.factor = factor;
+        }
+
+        public long getFactor() {
+            return factor;
+        }
+    }
+
+    private final Precision precision;
+    // 是否跨时间分区
+    private final boolean crossPartition;
+    // 初始时间戳
+    private final long start;
+    // 时间分区大小
+    private final long partitionSize;
+    // 跨分区时每个分区的行数
+    private final int rowsPerPartition;
+    // 行间隔
+    private final long interval;
+    // 每 gapEvery 行插入一次空档，0表示不插入
+    private final int gapEvery;
+    private final long gap;
+    // 每 burstEvery 行的前 burstRows 行为突发，0表示没有突发
+    private final int burstEvery;
+    private final int burstRows;
+    // 抖动上限（时间单位），0表示不抖动
+    private final long jitter;
+    // 推迟写入的批次比例
+    private final double outOfOrderRatio;
+    private final long seed;
+
+    /**
+     * @param precision        时间戳精度
+     * @param crossPartition   是否跨时间分区
+     * @param start            初始时间戳（毫秒）
+     * @param partitionSize    时间分区大小（毫秒）
+     * @param rowsPerPartition 跨分区时每个分区的行数
+     * @param interval         行间隔（毫秒）
+     * @param gapEvery         每隔多少行插入一次空档，0表示不插入
+     * @param gap              空档大小（毫秒）
+     * @param burstEvery       突发的周期（行），0表示没有突发
+     * @param burstRows        每个周期开头的突发行数，行间隔为1个时间单位
+     * @param jitter           抖动上限（时间单位）
+     * @param outOfOrderRatio  推迟写入的批次比例
+     * @param seed             抖动和乱序使用的种子
+     */
+    public TimestampPattern(Precision precision, boolean crossPartition, long start, long partitionSize, int rowsPerPartition,
+                            long interval, int gapEvery, long gap, int burstEvery, int burstRows, long jitter,
+                            double outOfOrderRatio, long seed) {
+        this.precision = precision;
+        this.crossPartition = crossPartition;
+        this.start = Math.multiplyExact(start, precision.factor);
+        this.partitionSize = Math.multiplyExact(partitionSize, precision.factor);
+        this.rowsPerPartition = crossPartition ? rowsPerPartition : 1;
+        this.interval = Math.multiplyExact(interval, precision.factor);
+        this.gapEvery = gapEvery;
+        this.gap = Math.multiplyExact(gap, precision.factor);
+        this.burstEvery = burstEvery;
+        this.burstRows = burstRows;
+        this.jitter = jitter;
+        this.outOfOrderRatio = outOfOrderRatio;
+        this.seed = seed;
+        if (this.interval <= 0) {
+            throw new IllegalArgumentException("行间隔必须大于0");
+        }
+        if (burstEvery > 0 && burstRows > burstEvery) {
+            throw new IllegalArgumentException("突发行数 " + burstRows + " 超过了突发周期 " + burstEvery);
+        }
+        if (crossPartition && offset(this.rowsPerPartition - 1) >= this.partitionSize) {
+            throw new IllegalArgumentException("每个时间分区 " + rowsPerPartition + " 行超出了分区大小 " + partitionSize);
+        }
+    }
+
+    /**
+     * 第 row 行的时间戳
+     */
+    public long time(int row) {
+        long time = base(row);
+        if (jitter > 0) {
+            // 抖动小于到下一行的间隔，保证严格递增
+            long bound = Math.min(jitter, base(row + 1L) - time);
+            time += Math.floorMod(ValueSource.mix64(seed ^ (row + 0x9E3779B97F4A7C15L)), bound);
+        }
+        return time;
+    }
+
+    /**
+     * 不含抖动的时间戳
+     */
+    private long base(long row) {
+        if (!crossPartition) {
+            return start + offset(row);
+        }
+        return start + (row / rowsPerPartition + 1) * partitionSize + offset(row % rowsPerPartition);
+    }
+
+    /**
+     * 一段连续行中第 index 行相对第一行的偏移：行间隔 + 空档 - 突发节省的间隔
+     */
+    private long offset(long index) {
+        long offset = index * interval;
+        if (gapEvery > 0) {
+            offset += index / gapEvery * gap;
+        }
+        if (burstEvery > 0 && burstRows > 1) {
+            // 每个周期中第 1 ~ burstRows-1 行与上一行的间隔为1个时间单位
+            long bursts = index / burstEvery * (burstRows - 1) + Math.min(index % burstEvery, burstRows - 1);
+            offset -= bursts * (interval - 1);
+        }
+        return offset;
+    }
+
+    /**
+     * 从 startRow 开始的一批是否推迟到下一批之后写入
+     */
+    public boolean isLate(int startRow) {
+        if (outOfOrderRatio <= 0) {
+            return false;
+        }
+        long hash = ValueSource.mix64(seed ^ ValueSource.mix64(startRow + 0x632BE59BD9B4E019L));
+        return (hash >>> 11) * 0x1.0p-53 < outOfOrderRatio;
+    }
+
+    public boolean isOutOfOrder() {
+        return outOfOrderRatio > 0;
+    }
+
+    /**
+     * 换算成时间戳精度后的时间分区大小
+     */
+    public long getPartitionSize() {
+        return partitionSize;
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * 清单中的时间戳配置，时间均已换算成时间戳精度
+     */
+    public Map<String, Object> toManifest() {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("precision", precision.name());
+        manifest.put("crossPartition", crossPartition);
+        manifest.put("partitionSize", partitionSize);
+        manifest.put("rowsPerPartition", rowsPerPartition);
+        manifest.put("interval", interval);
+        if (gapEvery > 0) {
+            manifest.put("gapEvery", gapEvery);
+            manifest.put("gap", gap);
+        }
+        if (burstEvery > 0) {
+            manifest.put("burstEvery", burstEvery);
+            manifest.put("burstRows", burstRows);
+        }
+        manifest.put("jitter", jitter);
+        manifest.put("outOfOrderRatio", outOfOrderRatio);
+        return manifest;
+    }
+}
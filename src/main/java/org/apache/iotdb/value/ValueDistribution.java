@@ -0,0 +1,197 @@
+package org.apache.iotdb.value;
+
+import org.apache.tsfile.enums.TSDataType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * INT32、INT64、FLOAT、DOUBLE 列的取值分布，由 VALUE_DISTRIBUTION 按数据类型选择
+ * <p>
+ * UNIFORM 在整个取值范围内均匀随机，是 TS_2DIFF、GORILLA 的最坏情况；其余分布有状态，每个序列组的每种数据类型各一份，
+ * 随该组的随机数流按行的顺序推进，与线程数无关。整数类型取四舍五入后的值
+ */
+public enum ValueDistribution {
+    // 整个取值范围内均匀随机
+    UNIFORM,
+    // 单调递增的计数器，每行增加 1~10，超过 COUNTER_LIMIT 后归零
+    COUNTER,
+    // 有界随机游走，每行变化 [-WALK_STEP, WALK_STEP)，碰到 ±WALK_BOUND 时反弹
+    RANDOM_WALK,
+    // 正弦信号加噪声：振幅 SINE_AMPLITUDE，周期 SINE_PERIOD 行，噪声为振幅的1%，每个序列的相位随机
+    SINE,
+    // 低基数枚举：每个序列随机选出 ENUM_CARDINALITY 个值，每行从中随机选取
+    ENUM,
+    // 重复值：同一个值连续出现 1~REPEAT_MAX_RUN 行后换成新的随机值
+    REPEAT;
+
+    private static final double COUNTER_LIMIT = 1e9;
+    private static final double WALK_STEP = 10;
+    private static final double WALK_BOUND = 1e6;
+    private static final double SINE_AMPLITUDE = 1000;
+    private static final int SINE_PERIOD = 1440;
+    private static final int ENUM_CARDINALITY = 8;
+    private static final int REPEAT_MAX_RUN = 200;
+
+    // 可以指定分布的数据类型
+    public static final TSDataType[] DATA_TYPES = {TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE};
+
+    /**
+     * 解析 TYPE:DISTRIBUTION 列表，如 INT64:COUNTER,DOUBLE:SINE；不带类型的分布作用于全部数值类型，同时出现时带类型的优先。
+     * 没有指定的类型为 UNIFORM，不出现在结果中；格式错误或类型不是数值类型时抛出 IllegalArgumentException
+     */
+    public static Map<TSDataType, ValueDistribution> parse(String value) {
+        Map<TSDataType, ValueDistribution> result = new EnumMap<>(TSDataType.class);
+        if (value == null || value.trim().isEmpty()) {
+            return result;
+        }
+        Map<TSDataType, ValueDistribution> typed = new EnumMap<>(TSDataType.class);
+        for (String item : value.split(",")) {
+            String entry = item.trim().toUpperCase();
+            int index = entry.indexOf(':');
+            if (index < 0) {
+                for (TSDataType dataType : DATA_TYPES) {
+                    result.put(dataType, valueOf(entry));
+                }
+                continue;
+            }
+            TSDataType dataType = TSDataType.valueOf(entry.substring(0, index).trim());
+            if (dataType != TSDataType.INT32 && dataType != TSDataType.INT64
+                    && dataType != TSDataType.FLOAT && dataType != TSDataType.DOUBLE) {
+                throw new IllegalArgumentException(dataType + " 不能指定取值分布");
+            }
+            typed.put(dataType, valueOf(entry.substring(index + 1).trim()));
+        }
+        result.putAll(typed);
+        result.values().removeIf(distribution -> distribution == UNIFORM);
+        return result;
+    }
+
+    /**
+     * 清单和报告中的描述，如 INT64:COUNTER,DOUBLE:SINE，全部为 UNIFORM 时为 UNIFORM
+     */
+    public static String format(Map<TSDataType, ValueDistribution> distributions) {
+        if (distributions.isEmpty()) {
+            return UNIFORM.name();
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<TSDataType, ValueDistribution> entry : distributions.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 为一个序列创建分布的状态，初始值使用 random 选取；UNIFORM 没有状态，返回 null
+     */
+    State newState(SplittableRandom random) {
+        switch (this) {
+            case UNIFORM:
+                return null;
+            case COUNTER:
+                return new Counter(random);
+            case RANDOM_WALK:
+                return new RandomWalk(random);
+            case SINE:
+                return new Sine(random);
+            case ENUM:
+                return new Enumeration(random);
+            case REPEAT:
+                return new Repeat();
+            default:
+                throw new UnsupportedOperationException("不支持的取值分布：" + this);
+        }
+    }
+
+    /**
+     * 一个序列的分布状态，非线程安全，随所属 ValueSource 的随机数流推进
+     */
+    abstract static class State {
+        abstract double next(SplittableRandom random);
+    }
+
+    private static final class Counter extends State {
+        private double value;
+
+        private Counter(SplittableRandom random) {
+            value = random.nextInt(1000000);
+        }
+
+        @Override
+        double next(SplittableRandom random) {
+            value += 1 + random.nextInt(10);
+            if (value > COUNTER_LIMIT) {
+                value = 0;
+            }
+            return value;
+        }
+    }
+
+    private static final class RandomWalk extends State {
+        private double value;
+
+        private RandomWalk(SplittableRandom random) {
+            value = random.nextDouble(-1000, 1000);
+        }
+
+        @Override
+        double next(SplittableRandom random) {
+            value += random.nextDouble(-WALK_STEP, WALK_STEP);
+            if (value > WALK_BOUND) {
+                value = 2 * WALK_BOUND - value;
+            } else if (value < -WALK_BOUND) {
+                value = -2 * WALK_BOUND - value;
+            }
+            return value;
+        }
+    }
+
+    private static final class Sine extends State {
+        private final double phase;
+        private long row;
+
+        private Sine(SplittableRandom random) {
+            phase = random.nextDouble(2 * Math.PI);
+        }
+
+        @Override
+        double next(SplittableRandom random) {
+            double signal = SINE_AMPLITUDE * Math.sin(2 * Math.PI * (row++ % SINE_PERIOD) / SINE_PERIOD + phase);
+            return signal + random.nextDouble(-0.01, 0.01) * SINE_AMPLITUDE;
+        }
+    }
+
+    private static final class Enumeration extends State {
+        private final double[] values = new double[ENUM_CARDINALITY];
+
+        private Enumeration(SplittableRandom random) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(1000);
+            }
+        }
+
+        @Override
+        double next(SplittableRandom random) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+
+    private static final class Repeat extends State {
+        private double value;
+        private int remaining;
+
+        @Override
+        double next(SplittableRandom random) {
+            if (remaining == 0) {
+                value = random.nextDouble(-WALK_BOUND, WALK_BOUND);
+                remaining = 1 + random.nextInt(REPEAT_MAX_RUN);
+            }
+            remaining--;
+            return value;
+        }
+    }
+}
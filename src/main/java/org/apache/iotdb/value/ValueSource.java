@@ -0,0 +1,282 @@
+package org.apache.iotdb.value;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 随机值生成：每个生成器（或工作线程）持有一个实例，复用同一个随机数流和字符缓冲区，避免逐个单元格创建随机数对象
+ * <p>
+ * 非线程安全，多线程时通过 split() 为每个线程派生独立的实例；derive() 按 场景/执行次数/时间序列编号 等键派生确定性的子实例，
+ * 同一个种子和同一组键总是得到相同的随机数流，与线程数和执行顺序无关。字符缓冲区按线程复用，
+ * 子实例可以交给其他线程使用（如流水线的生产者线程），只要同一时刻只有一个线程使用。
+ * 数值类型按 ValueDistribution 取值，有状态的分布每个实例每种类型各一份，派生的子实例从初始状态开始
+ */
+public class ValueSource {
+    // 随机字符串使用的字符集
+    private static final char[] CHAR_SET = ("ABCDEFGHIJKLMNOPQRSTUVWXYZ" +
+            "abcdefghijklmnopqrstuvwxyz" +
+            "0123456789"
+            + "!@#$%^&*()-_=+[]{}|;:,.<>?/~`" +
+            "去微软推哦爬山的风格结合两者相差不能").toCharArray();
+    // 字符集中每个字符的UTF-8编码
+    private static final byte[][] CHAR_BYTES = new byte[CHAR_SET.length][];
+
+    static {
+        for (int i = 0; i < CHAR_SET.length; i++) {
+            CHAR_BYTES[i] = String.valueOf(CHAR_SET[i]).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    // 每个线程复用的缓冲区
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    // 未配置种子时本次运行使用的种子
+    private static final long RANDOM_SEED = new SplittableRandom().nextLong();
+
+    // 派生子实例使用的种子
+    private final long seed;
+    private final SplittableRandom random;
+    // TEXT、STRING、BLOB 的取值来源，派生的子实例沿用
+    private final PayloadSource payloads;
+    // INT32、INT64、FLOAT、DOUBLE 的取值分布，没有的类型为 UNIFORM，派生的子实例沿用
+    private final Map<TSDataType, ValueDistribution> distributions;
+    // 各数值类型的分布状态，UNIFORM 时为 null
+    private final ValueDistribution.State int32State;
+    private final ValueDistribution.State int64State;
+    private final ValueDistribution.State floatState;
+    private final ValueDistribution.State doubleState;
+
+    public ValueSource() {
+        this(RANDOM_SEED);
+    }
+
+    public ValueSource(long seed) {
+        this(seed, PayloadSource.RANDOM);
+    }
+
+    public ValueSource(long seed, PayloadSource payloads) {
+        this(seed, payloads, Collections.emptyMap());
+    }
+
+    public ValueSource(long seed, PayloadSource payloads, Map<TSDataType, ValueDistribution> distributions) {
+        this(seed, new SplittableRandom(seed), payloads, distributions);
+    }
+
+    private ValueSource(long seed, SplittableRandom random, PayloadSource payloads, Map<TSDataType, ValueDistribution> distributions) {
+        this.seed = seed;
+        this.random = random;
+        this.payloads = payloads;
+        this.distributions = distributions;
+        // 全部为 UNIFORM 时不消耗随机数，生成的值与不指定分布时相同
+        this.int32State = newState(TSDataType.INT32);
+        this.int64State = newState(TSDataType.INT64);
+        this.floatState = newState(TSDataType.FLOAT);
+        this.doubleState = newState(TSDataType.DOUBLE);
+    }
+
+    private ValueDistribution.State newState(TSDataType dataType) {
+        ValueDistribution distribution = distributions.get(dataType);
+        return distribution == null ? null : distribution.newState(random);
+    }
+
+    /**
+     * 解析配置中的种子，为空时使用本次运行随机选择的种子
+     */
+    public static long resolveSeed(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return RANDOM_SEED;
+        }
+        return Long.parseLong(value.trim());
+    }
+
+    /**
+     * 派生一个独立的子实例，供其他线程使用
+     */
+    public ValueSource split() {
+        SplittableRandom child = random.split();
+        return new ValueSource(child.nextLong(), child, payloads, distributions);
+    }
+
+    /**
+     * 从当前实例的随机数流中拆分出独立的 SplittableRandom，供空值等与数据类型无关的生成使用
+     */
+    public SplittableRandom splitRandom() {
+        return random.split();
+    }
+
+    /**
+     * 按键派生确定性的子实例，键为字符串或整数
+     */
+    public ValueSource derive(Object... keys) {
+        long hash = seed;
+        for (Object key : keys) {
+            long value = key instanceof Number ? ((Number) key).longValue() : key.hashCode();
+            hash = mix64(hash ^ mix64(value + 0x9E3779B97F4A7C15L));
+        }
+        return new ValueSource(hash, new SplittableRandom(hash), payloads, distributions);
+    }
+
+    /**
+     * SplitMix64 的混淆函数
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    public int nextInt32() {
+        if (int32State != null) {
+            return (int) Math.round(int32State.next(random));
+        }
+        return random.nextInt(-2147483647, 2147483647);
+    }
+
+    public long nextInt64() {
+        if (int64State != null) {
+            return Math.round(int64State.next(random));
+        }
+        return random.nextLong(-9223372036854775807L, 9223372036854775807L);
+    }
+
+    public float nextFloat() {
+        if (floatState != null) {
+            return (float) floatState.next(random);
+        }
+        return (float) random.nextDouble(-2147483647, 2147483647);
+    }
+
+    public double nextDouble() {
+        if (doubleState != null) {
+            return doubleState.next(random);
+        }
+        return random.nextDouble(-2147483647, 2147483647);
+    }
+
+    /**
+     * TIMESTAMP 列的值，不受 INT64 的取值分布影响
+     */
+    public long nextTimestamp() {
+        return random.nextLong(-9223372036854775807L, 9223372036854775807L);
+    }
+
+    /**
+     * [-bound, bound) 天范围内的日期
+     */
+    public LocalDate nextDate(int bound) {
+        return LocalDate.ofEpochDay(random.nextInt(-bound, bound));
+    }
+
+    /**
+     * 随机字符串
+     */
+    public String nextString(int length) {
+        Buffers buffers = BUFFERS.get();
+        if (buffers.chars.length < length) {
+            buffers.chars = new char[length];
+        }
+        char[] chars = buffers.chars;
+        for (int i = 0; i < length; i++) {
+            chars[i] = CHAR_SET[random.nextInt(CHAR_SET.length)];
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * 长度为 length 个字符的 TEXT、STRING、BLOB 值，按 PayloadSource 生成
+     */
+    public Binary nextBinary(int length) {
+        return payloads.next(this, length);
+    }
+
+    /**
+     * [0, bound) 范围内的下标
+     */
+    int nextIndex(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * 随机字符串的UTF-8编码，直接编码到复用的缓冲区中，不经过 String
+     */
+    Binary randomBinary(int length) {
+        // 字符集中的字符最多3个字节
+        Buffers buffers = BUFFERS.get();
+        if (buffers.bytes.length < length * 3) {
+            buffers.bytes = new byte[length * 3];
+        }
+        byte[] buffer = buffers.bytes;
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            byte[] bytes = CHAR_BYTES[random.nextInt(CHAR_SET.length)];
+            for (byte b : bytes) {
+                buffer[size++] = b;
+            }
+        }
+        return new Binary(Arrays.copyOf(buffer, size));
+    }
+
+    /**
+     * 批量填充 [from, to) 区间
+     */
+    public void fillBoolean(boolean[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = random.nextBoolean();
+        }
+    }
+
+    public void fillInt32(int[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextInt32();
+        }
+    }
+
+    public void fillInt64(long[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextInt64();
+        }
+    }
+
+    public void fillFloat(float[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextFloat();
+        }
+    }
+
+    public void fillDouble(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextDouble();
+        }
+    }
+
+    public void fillBinary(Binary[] values, int from, int to, int length) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextBinary(length);
+        }
+    }
+
+    public void fillDate(LocalDate[] values, int from, int to, int bound) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextDate(bound);
+        }
+    }
+
+    /**
+     * 线程内复用的缓冲区
+     */
+    private static class Buffers {
+        private char[] chars = new char[0];
+        private byte[] bytes = new byte[0];
+    }
+}
@@ -0,0 +1,173 @@
+import org.apache.iotdb.tree.BudgetedTsFileWriter;
+import org.apache.iotdb.tree.OutputBackend;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 检查各输出方式（OUTPUT_MODE）和 fsync 策略（FSYNC_POLICY）写出的文件与默认输出（STREAM + CLOSE）逐字节相同
+ * <p>
+ * 缓冲区大小取 4KB、64KB 和 8MB，数据量超过最大的缓冲区，MMAP 跨多个窗口并在关闭时截断，ASYNC 多次交换两块缓冲区；另外覆盖 chunk 元数据转存到临时文件，
+ * 以及刷盘后写入一段数据再用 TsFileIOWriter.reset() 截断回去（长度分别小于、大于各缓冲区）。
+ * 参数：压缩方式（默认使用 TSFileConfig 中的配置）
+ */
+public class OutputModeCheck {
+    private static final File expectedFile = new File("OutputModeCheck_expected.tsfile");
+    private static final File actualFile = new File("OutputModeCheck_actual.tsfile");
+    private static final OutputBackend.Mode[] modes = {OutputBackend.Mode.CHANNEL, OutputBackend.Mode.MMAP,
+            OutputBackend.Mode.ASYNC};
+    private static final int[] bufferSizes = {4 << 10, 64 << 10, 8 << 20};
+    // INTERVAL 策略的 fsync 间隔，保证每个文件都会按间隔 fsync 多次
+    private static final long fsyncInterval = 1 << 20;
+    // 截断用例每次刷盘后写入再截断的字节数
+    private static final int[] truncatedBytes = {100, 100 << 10, 9 << 20};
+
+    public static void main(String[] args) throws IOException, WriteProcessException {
+        if (args.length > 0) {
+            TSFileDescriptor.getInstance().getConfig().setCompressor(args[0]);
+        }
+        List<String> failures = new ArrayList<>();
+        // 名称、设备数、每批设备数（每批写完刷盘一次）、每个设备的行数、内存预算、chunk 元数据预算、刷盘后是否写入再截断
+        compare(failures, new Case("多次刷盘", 2, 2, 20000, 4L << 20, 0, false));
+        compare(failures, new Case("chunk 元数据转存", 400, 40, 100, 64L << 20, 4 << 10, false));
+        compare(failures, new Case("刷盘后截断", 3, 1, 10000, 64L << 20, 0, true));
+        Files.deleteIfExists(expectedFile.toPath());
+        Files.deleteIfExists(actualFile.toPath());
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("输出方式检查失败：" + failures);
+        }
+        System.out.println("输出方式检查通过");
+    }
+
+    /**
+     * 用默认输出写一次，再用每种输出方式、缓冲区大小和 fsync 策略各写一次，比较文件内容
+     */
+    private static void compare(List<String> failures, Case testCase) throws IOException, WriteProcessException {
+        if (write(expectedFile, testCase, OutputBackend.DEFAULT) == 0 && testCase.metadataBudget > 0) {
+            // chunk 元数据没有转存时这个用例检查不到转存的路径
+            failures.add(testCase.name + " 没有转存");
+        }
+        byte[] expected = Files.readAllBytes(expectedFile.toPath());
+        List<OutputBackend> backends = new ArrayList<>();
+        backends.add(new OutputBackend(OutputBackend.Mode.STREAM, 0, OutputBackend.FsyncPolicy.NEVER, 0));
+        for (OutputBackend.Mode mode : modes) {
+            for (int bufferSize : bufferSizes) {
+                for (OutputBackend.FsyncPolicy policy : OutputBackend.FsyncPolicy.values()) {
+                    backends.add(new OutputBackend(mode, bufferSize, policy, fsyncInterval));
+                }
+            }
+        }
+        for (OutputBackend backend : backends) {
+            write(actualFile, testCase, backend);
+            byte[] actual = Files.readAllBytes(actualFile.toPath());
+            boolean same = Arrays.equals(expected, actual);
+            System.out.printf("%-16s %-32s 默认 %d 字节，%d 字节，%s%n", testCase.name, backend, expected.length, actual.length,
+                    same ? "相同" : "不同");
+            if (!same) {
+                failures.add(testCase.name + " " + backend);
+            }
+        }
+    }
+
+    /**
+     * 返回 chunk 元数据转存的次数
+     */
+    private static int write(File file, Case testCase, OutputBackend backend) throws IOException, WriteProcessException {
+        Files.deleteIfExists(file.toPath());
+        Random random = new Random(42);
+        List<MeasurementSchema> schemas = new ArrayList<>();
+        schemas.add(new MeasurementSchema("s_INT64", TSDataType.INT64));
+        schemas.add(new MeasurementSchema("s_DOUBLE", TSDataType.DOUBLE));
+        schemas.add(new MeasurementSchema("s_TEXT_0", TSDataType.TEXT));
+        schemas.add(new MeasurementSchema("s_TEXT_1", TSDataType.TEXT));
+        int batchRows = Math.min(testCase.rows, 1000);
+        int truncations = 0;
+        int spills = 0;
+        try (BudgetedTsFileWriter writer = new BudgetedTsFileWriter(file, testCase.memoryBudget, testCase.metadataBudget, backend)) {
+            Tablet tablet = new Tablet("root.check.d0", schemas, batchRows);
+            for (int first = 0; first < testCase.devices; first += testCase.deviceBatch) {
+                int last = Math.min(testCase.devices, first + testCase.deviceBatch);
+                for (int device = first; device < last; device++) {
+                    writer.registerAlignedTimeseries(new Path("root.check.d" + device), schemas);
+                }
+                for (int start = 0; start < testCase.rows; start += batchRows) {
+                    for (int device = first; device < last; device++) {
+                        tablet.reset();
+                        tablet.deviceId = "root.check.d" + device;
+                        fill(tablet, random, start, Math.min(testCase.rows, start + batchRows));
+                        writer.writeAligned(tablet);
+                    }
+                }
+                writer.flush();
+                if (writer.flushChunkMetadata()) {
+                    spills++;
+                }
+                if (testCase.truncate) {
+                    writeAndTruncate(writer.getWriter().getIOWriter(), truncatedBytes[truncations++ % truncatedBytes.length]);
+                }
+            }
+        }
+        return spills;
+    }
+
+    /**
+     * 在当前位置之后写入 length 字节再截断回来，之后的 chunk group 从原位置继续写
+     */
+    private static void writeAndTruncate(TsFileIOWriter ioWriter, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) 0x5a);
+        ioWriter.mark();
+        ioWriter.getIOWriterOut().write(bytes);
+        ioWriter.reset();
+    }
+
+    private static void fill(Tablet tablet, Random random, int from, int to) {
+        for (int time = from; time < to; time++) {
+            int row = tablet.rowSize++;
+            tablet.addTimestamp(row, time);
+            ((long[]) tablet.values[0])[row] = random.nextLong();
+            ((double[]) tablet.values[1])[row] = random.nextDouble();
+            for (int column = 2; column < 4; column++) {
+                char[] chars = new char[random.nextInt(201)];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = (char) ('a' + random.nextInt(26));
+                }
+                ((Binary[]) tablet.values[column])[row] = new Binary(new String(chars), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private static final class Case {
+        private final String name;
+        private final int devices;
+        private final int deviceBatch;
+        private final int rows;
+        private final long memoryBudget;
+        private final long metadataBudget;
+        private final boolean truncate;
+
+        private Case(String name, int devices, int deviceBatch, int rows, long memoryBudget, long metadataBudget, boolean truncate) {
+            this.name = name;
+            this.devices = devices;
+            this.deviceBatch = deviceBatch;
+            this.rows = rows;
+            this.memoryBudget = memoryBudget;
+            this.metadataBudget = metadataBudget;
+            this.truncate = truncate;
+        }
+    }
+}
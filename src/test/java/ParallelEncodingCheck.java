@@ -0,0 +1,217 @@
+import org.apache.iotdb.tree.BudgetedTsFileWriter;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 检查多线程编码（ENCODE_THREAD_NUMBER 大于0）写出的文件与 TsFileWriter 串行写入的文件逐字节相同，
+ * 并检查未注册的设备、物理量和时间不递增的数据在多线程编码时同样被拒绝
+ * <p>
+ * 使用默认的页大小和编码；对齐 TEXT 列按页的字节数提前封页，长度随机时各列在不同的行达到阈值。
+ * 参数：压缩方式（默认使用 TSFileConfig 中的配置），编码线程数（默认4）
+ */
+public class ParallelEncodingCheck {
+    private static final File serialFile = new File("ParallelEncodingCheck_serial.tsfile");
+    private static final File parallelFile = new File("ParallelEncodingCheck_parallel.tsfile");
+    private static final TSDataType[] allTypes = {TSDataType.BOOLEAN, TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT,
+            TSDataType.DOUBLE, TSDataType.TEXT, TSDataType.STRING, TSDataType.BLOB, TSDataType.DATE, TSDataType.TIMESTAMP};
+    private static int threadNumber = 4;
+
+    public static void main(String[] args) throws IOException, WriteProcessException {
+        if (args.length > 0) {
+            TSFileDescriptor.getInstance().getConfig().setCompressor(args[0]);
+        }
+        if (args.length > 1) {
+            threadNumber = Integer.parseInt(args[1]);
+        }
+        List<String> failures = new ArrayList<>();
+        TSDataType[] text = new TSDataType[8];
+        Arrays.fill(text, TSDataType.TEXT);
+        // 名称、是否对齐、各列类型、空值比例、每个设备的行数、每个 tablet 的行数、TEXT 最大长度、内存预算。
+        // 没有内存预算时两条路径的刷盘时机不同（TsFileWriter 按自己的内存检查刷盘），这里总是设置预算，64MB 时只在关闭时刷盘一次
+        compare(failures, "对齐 TEXT", true, text, 0, 20000, 1000, 300, 64L << 20);
+        compare(failures, "对齐 TEXT，含空值", true, text, 0.3, 20000, 1000, 300, 64L << 20);
+        compare(failures, "对齐 TEXT，多次刷盘", true, text, 0.1, 20000, 777, 300, 4L << 20);
+        compare(failures, "对齐各数据类型，含空值", true, allTypes, 0.2, 50000, 1000, 100, 64L << 20);
+        compare(failures, "对齐各数据类型，空值多", true, allTypes, 0.95, 50000, 1000, 100, 64L << 20);
+        compare(failures, "非对齐各数据类型，含空值", false, allTypes, 0.2, 50000, 1000, 100, 64L << 20);
+        compare(failures, "非对齐 TEXT，多次刷盘", false, text, 0.1, 20000, 777, 300, 4L << 20);
+        checkRejected(failures);
+        Files.deleteIfExists(serialFile.toPath());
+        Files.deleteIfExists(parallelFile.toPath());
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("多线程编码检查失败：" + failures);
+        }
+        System.out.println("多线程编码检查通过");
+    }
+
+    /**
+     * 串行和多线程各写一次两个设备，比较文件内容
+     */
+    private static void compare(List<String> failures, String name, boolean aligned, TSDataType[] types, double nullRatio,
+                                int rows, int batchRows, int maxTextLength, long memoryBudget) throws IOException, WriteProcessException {
+        write(serialFile, 0, aligned, types, nullRatio, rows, batchRows, maxTextLength, memoryBudget);
+        write(parallelFile, threadNumber, aligned, types, nullRatio, rows, batchRows, maxTextLength, memoryBudget);
+        byte[] serial = Files.readAllBytes(serialFile.toPath());
+        byte[] parallel = Files.readAllBytes(parallelFile.toPath());
+        boolean same = Arrays.equals(serial, parallel);
+        System.out.printf("%-24s 串行 %d 字节，多线程 %d 字节，%s%n", name, serial.length, parallel.length, same ? "相同" : "不同");
+        if (!same) {
+            failures.add(name);
+        }
+    }
+
+    private static void write(File file, int threads, boolean aligned, TSDataType[] types, double nullRatio, int rows,
+                              int batchRows, int maxTextLength, long memoryBudget) throws IOException, WriteProcessException {
+        Files.deleteIfExists(file.toPath());
+        Random random = new Random(42);
+        try (BudgetedTsFileWriter writer = new BudgetedTsFileWriter(file, memoryBudget)) {
+            writer.enableParallelEncoding(threads);
+            List<MeasurementSchema> schemas = new ArrayList<>(types.length);
+            for (int i = 0; i < types.length; i++) {
+                schemas.add(new MeasurementSchema("s_" + types[i] + "_" + i, types[i]));
+            }
+            String[] devices = {"root.check.d0", "root.check.d1"};
+            for (String device : devices) {
+                if (aligned) {
+                    writer.registerAlignedTimeseries(new Path(device), schemas);
+                } else {
+                    for (MeasurementSchema schema : schemas) {
+                        writer.registerTimeseries(new Path(device), schema);
+                    }
+                }
+            }
+            Tablet tablet = new Tablet(devices[0], schemas, batchRows);
+            tablet.initBitMaps();
+            for (int start = 0; start < rows; start += batchRows) {
+                for (String device : devices) {
+                    tablet.reset();
+                    tablet.deviceId = device;
+                    fill(tablet, types, random, nullRatio, start, Math.min(rows, start + batchRows), maxTextLength);
+                    if (aligned) {
+                        writer.writeAligned(tablet);
+                    } else {
+                        writer.write(tablet);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void fill(Tablet tablet, TSDataType[] types, Random random, double nullRatio, int from, int to, int maxTextLength) {
+        for (int time = from; time < to; time++) {
+            int row = tablet.rowSize++;
+            tablet.addTimestamp(row, time);
+            for (int column = 0; column < types.length; column++) {
+                if (random.nextDouble() < nullRatio) {
+                    tablet.bitMaps[column].mark(row);
+                    continue;
+                }
+                tablet.bitMaps[column].unmark(row);
+                switch (types[column]) {
+                    case BOOLEAN:
+                        ((boolean[]) tablet.values[column])[row] = random.nextBoolean();
+                        break;
+                    case INT32:
+                        ((int[]) tablet.values[column])[row] = random.nextInt();
+                        break;
+                    case DATE:
+                        ((LocalDate[]) tablet.values[column])[row] = LocalDate.ofEpochDay(random.nextInt(50000));
+                        break;
+                    case INT64:
+                    case TIMESTAMP:
+                        ((long[]) tablet.values[column])[row] = random.nextLong();
+                        break;
+                    case FLOAT:
+                        ((float[]) tablet.values[column])[row] = random.nextFloat();
+                        break;
+                    case DOUBLE:
+                        ((double[]) tablet.values[column])[row] = random.nextDouble();
+                        break;
+                    default:
+                        char[] chars = new char[random.nextInt(maxTextLength + 1)];
+                        for (int i = 0; i < chars.length; i++) {
+                            chars[i] = (char) ('a' + random.nextInt(26));
+                        }
+                        ((Binary[]) tablet.values[column])[row] = new Binary(new String(chars), StandardCharsets.UTF_8);
+                }
+            }
+        }
+    }
+
+    /**
+     * 多线程编码同样拒绝未注册的设备和物理量、对齐方式不一致以及时间不递增的数据；非对齐设备的不同物理量可以写入相同的时间
+     */
+    private static void checkRejected(List<String> failures) throws IOException, WriteProcessException {
+        List<MeasurementSchema> schemas = new ArrayList<>();
+        schemas.add(new MeasurementSchema("s_INT32", TSDataType.INT32));
+        List<MeasurementSchema> other = new ArrayList<>();
+        other.add(new MeasurementSchema("s_INT64", TSDataType.INT64));
+        Files.deleteIfExists(parallelFile.toPath());
+        try (BudgetedTsFileWriter writer = new BudgetedTsFileWriter(parallelFile, 0)) {
+            writer.enableParallelEncoding(threadNumber);
+            writer.registerAlignedTimeseries(new Path("root.check.ad"), schemas);
+            writer.registerTimeseries(new Path("root.check.d"), schemas.get(0));
+            writer.registerTimeseries(new Path("root.check.d"), other.get(0));
+            expectRejected(failures, "未注册的设备", () -> writer.write(tablet("root.check.unknown", schemas, 0, 10)));
+            expectRejected(failures, "未注册的物理量", () -> writer.write(tablet("root.check.d", withUnknown(schemas), 0, 10)));
+            expectRejected(failures, "对齐方式不一致", () -> writer.write(tablet("root.check.ad", schemas, 0, 10)));
+            writer.writeAligned(tablet("root.check.ad", schemas, 0, 10));
+            expectRejected(failures, "对齐设备时间不递增", () -> writer.writeAligned(tablet("root.check.ad", schemas, 5, 10)));
+            writer.write(tablet("root.check.d", schemas, 0, 10));
+            writer.write(tablet("root.check.d", other, 0, 10));
+            writer.flush();
+            expectRejected(failures, "刷盘后非对齐序列时间不递增", () -> writer.write(tablet("root.check.d", other, 9, 10)));
+        }
+    }
+
+    private static List<MeasurementSchema> withUnknown(List<MeasurementSchema> schemas) {
+        List<MeasurementSchema> result = new ArrayList<>(schemas);
+        result.add(new MeasurementSchema("s_unknown", TSDataType.INT32));
+        return result;
+    }
+
+    private static Tablet tablet(String device, List<MeasurementSchema> schemas, long start, int rows) {
+        Tablet tablet = new Tablet(device, schemas, rows);
+        for (int i = 0; i < rows; i++) {
+            int row = tablet.rowSize++;
+            tablet.addTimestamp(row, start + i);
+            for (int column = 0; column < schemas.size(); column++) {
+                if (schemas.get(column).getType() == TSDataType.INT64) {
+                    ((long[]) tablet.values[column])[row] = i;
+                } else {
+                    ((int[]) tablet.values[column])[row] = i;
+                }
+            }
+        }
+        return tablet;
+    }
+
+    private static void expectRejected(List<String> failures, String name, Write write) throws IOException {
+        try {
+            write.run();
+            System.out.printf("%-24s 没有被拒绝%n", name);
+            failures.add(name);
+        } catch (WriteProcessException | IllegalStateException e) {
+            System.out.printf("%-24s 已拒绝：%s%n", name, e.getMessage());
+        }
+    }
+
+    private interface Write {
+        void run() throws IOException, WriteProcessException;
+    }
+}
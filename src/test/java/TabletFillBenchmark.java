@@ -0,0 +1,124 @@
+import org.apache.iotdb.tree.TabletFiller;
+import org.apache.iotdb.value.ValueSource;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 对比按物理量名 addValue 和按列下标 TabletFiller 填充 Tablet 的耗时，形状与 SameDevice 对齐设备一致：groups 组 * 10列
+ * <p>
+ * 分别用随机值和常量值测试，常量值排除了数据合成的耗时，只比较填充路径本身
+ */
+public class TabletFillBenchmark {
+    private static final String measurementName = "m";
+
+    public static void main(String[] args) {
+        int groups = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        List<MeasurementSchema> schemas = new ArrayList<>(groups * TabletFiller.COLUMN_NUMBER);
+        for (int group = 0; group < groups; group++) {
+            schemas.addAll(TabletFiller.createSchemas(measurementName, "0_" + group));
+        }
+        Tablet tablet = new Tablet("root.test.ad", schemas, rows);
+        tablet.initBitMaps();
+        for (int round = 0; round < 5; round++) {
+            run("随机值", tablet, groups, rows, new ValueSource(round), new ValueSource(round));
+        }
+        ValueSource constant = new ConstantValueSource();
+        for (int round = 0; round < 5; round++) {
+            run("常量值", tablet, groups, rows, constant, constant);
+        }
+    }
+
+    private static void run(String name, Tablet tablet, int groups, int rows, ValueSource nameSource, ValueSource indexSource) {
+        long start = System.nanoTime();
+        byName(tablet, groups, rows, nameSource);
+        long byName = System.nanoTime() - start;
+        start = System.nanoTime();
+        byIndex(tablet, groups, rows, indexSource);
+        long byIndex = System.nanoTime() - start;
+        System.out.printf("%s addValue：%.1f ms，TabletFiller：%.1f ms，加速比：%.2f%n",
+                name, byName / 1e6, byIndex / 1e6, (double) byName / byIndex);
+    }
+
+    /**
+     * 原先的方式：每个单元格拼接物理量名再 addValue
+     */
+    private static void byName(Tablet tablet, int groups, int rows, ValueSource source) {
+        tablet.reset();
+        for (int row = 0; row < rows; row++) {
+            tablet.addTimestamp(tablet.rowSize++, row);
+            for (int i = 0; i < groups; i++) {
+                tablet.addValue(measurementName + "_" + "BOOLEAN" + "_" + 0 + "_" + i, row, source.nextBoolean());
+                tablet.addValue(measurementName + "_" + "INT32" + "_" + 0 + "_" + i, row, source.nextInt32());
+                tablet.addValue(measurementName + "_" + "INT64" + "_" + 0 + "_" + i, row, source.nextInt64());
+                tablet.addValue(measurementName + "_" + "FLOAT" + "_" + 0 + "_" + i, row, source.nextFloat());
+                tablet.addValue(measurementName + "_" + "DOUBLE" + "_" + 0 + "_" + i, row, source.nextDouble());
+                tablet.addValue(measurementName + "_" + "TEXT" + "_" + 0 + "_" + i, row, source.nextBinary(1000));
+                tablet.addValue(measurementName + "_" + "STRING" + "_" + 0 + "_" + i, row, source.nextBinary(100));
+                tablet.addValue(measurementName + "_" + "BLOB" + "_" + 0 + "_" + i, row, source.nextBinary(100));
+                tablet.addValue(measurementName + "_" + "TIMESTAMP" + "_" + 0 + "_" + i, row, source.nextInt64());
+                tablet.addValue(measurementName + "_" + "DATE" + "_" + 0 + "_" + i, row, source.nextDate(1000));
+            }
+        }
+    }
+
+    private static void byIndex(Tablet tablet, int groups, int rows, ValueSource source) {
+        tablet.reset();
+        TabletFiller filler = new TabletFiller(tablet);
+        for (int row = 0; row < rows; row++) {
+            tablet.addTimestamp(tablet.rowSize++, row);
+            for (int i = 0; i < groups; i++) {
+                filler.fillAll(i * TabletFiller.COLUMN_NUMBER, row, source, 1000);
+            }
+        }
+    }
+
+    /**
+     * 返回常量的 ValueSource
+     */
+    private static class ConstantValueSource extends ValueSource {
+        private static final Binary TEXT = new Binary("t", StandardCharsets.UTF_8);
+        private static final LocalDate DATE = LocalDate.ofEpochDay(0);
+
+        @Override
+        public boolean nextBoolean() {
+            return true;
+        }
+
+        @Override
+        public int nextInt32() {
+            return 1;
+        }
+
+        @Override
+        public long nextInt64() {
+            return 1L;
+        }
+
+        @Override
+        public float nextFloat() {
+            return 1f;
+        }
+
+        @Override
+        public double nextDouble() {
+            return 1d;
+        }
+
+        @Override
+        public Binary nextBinary(int length) {
+            return TEXT;
+        }
+
+        @Override
+        public LocalDate nextDate(int bound) {
+            return DATE;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import org.apache.iotdb.value.PayloadSource;
+import org.apache.iotdb.value.ValueSource;
+import org.apache.tsfile.utils.Binary;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * 对比原先逐个单元格创建随机数对象的生成方式和 ValueSource 的吞吐量（行/s）及每行分配的字节数，每行为10种数据类型各一个值
+ * <p>
+ * ValueSource 分别使用 PAYLOAD_MODE 的三种取值方式，numeric 只生成定长类型的7个值，作为变长类型开销的参照
+ */
+public class ValueSourceBenchmark {
+    private static final String CHAR_SET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ" +
+            "abcdefghijklmnopqrstuvwxyz" +
+            "0123456789"
+            + "!@#$%^&*()-_=+[]{}|;:,.<>?/~`" +
+            "去微软推哦爬山的风格结合两者相差不能";
+    // 防止结果被JIT消除
+    private static long sink;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        ValueSource valueSource = new ValueSource();
+        ValueSource slice = new ValueSource(0, PayloadSource.of(PayloadSource.Mode.SLICE, 0, 0));
+        ValueSource pool = new ValueSource(0, PayloadSource.of(PayloadSource.Mode.POOL, 1000, 0));
+        // 预热
+        legacy(rows / 4);
+        current(valueSource, rows / 4);
+        current(slice, rows / 4);
+        current(pool, rows / 4);
+        numeric(valueSource, rows / 4);
+        for (int round = 0; round < 3; round++) {
+            report("legacy", rows, () -> legacy(rows));
+            report("RANDOM", rows, () -> current(valueSource, rows));
+            report("SLICE", rows, () -> current(slice, rows));
+            report("POOL", rows, () -> current(pool, rows));
+            report("numeric", rows, () -> numeric(valueSource, rows));
+        }
+        System.out.println(sink);
+    }
+
+    private static void report(String name, int rows, Runnable runnable) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocated = bean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        runnable.run();
+        long elapsed = System.nanoTime() - start;
+        allocated = bean.getThreadAllocatedBytes(threadId) - allocated;
+        System.out.printf("%-12s %,.0f 行/s，%,d 字节/行%n", name, rows / (elapsed / 1e9), allocated / rows);
+    }
+
+    /**
+     * 原先的生成方式：每个值都 new SplittableRandom()，每个字符串都 new Random() 和 StringBuilder
+     */
+    private static void legacy(int rows) {
+        for (int row = 0; row < rows; row++) {
+            sink += new SplittableRandom().nextBoolean() ? 1 : 0;
+            sink += new SplittableRandom().nextInt(-2147483647, 2147483647);
+            sink += new SplittableRandom().nextLong(-9223372036854775807L, 9223372036854775807L);
+            sink += (long) (float) new SplittableRandom().nextDouble(-2147483647, 2147483647);
+            sink += (long) new SplittableRandom().nextDouble(-2147483647, 2147483647);
+            // TEXT、STRING 由 Tablet 转为 Binary
+            sink += new Binary(getString(1000), StandardCharsets.UTF_8).getLength();
+            sink += new Binary(getString(100), StandardCharsets.UTF_8).getLength();
+            sink += new Binary(getString(100).getBytes(StandardCharsets.UTF_8)).getLength();
+            sink += new SplittableRandom().nextLong(-9223372036854775807L, 9223372036854775807L);
+            sink += LocalDate.ofEpochDay(new SplittableRandom().nextInt(-1000, 1000)).getDayOfMonth();
+        }
+    }
+
+    private static String getString(int length) {
+        Random random = new Random();
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(CHAR_SET.charAt(random.nextInt(CHAR_SET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static void current(ValueSource valueSource, int rows) {
+        for (int row = 0; row < rows; row++) {
+            sink += valueSource.nextBoolean() ? 1 : 0;
+            sink += valueSource.nextInt32();
+            sink += valueSource.nextInt64();
+            sink += (long) valueSource.nextFloat();
+            sink += (long) valueSource.nextDouble();
+            sink += valueSource.nextBinary(1000).getLength();
+            sink += valueSource.nextBinary(100).getLength();
+            sink += valueSource.nextBinary(100).getLength();
+            sink += valueSource.nextInt64();
+            sink += valueSource.nextDate(1000).getDayOfMonth();
+        }
+    }
+
+    private static void numeric(ValueSource valueSource, int rows) {
+        for (int row = 0; row < rows; row++) {
+            sink += valueSource.nextBoolean() ? 1 : 0;
+            sink += valueSource.nextInt32();
+            sink += valueSource.nextInt64();
+            sink += (long) valueSource.nextFloat();
+            sink += (long) valueSource.nextDouble();
+            sink += valueSource.nextInt64();
+            sink += valueSource.nextDate(1000).getDayOfMonth();
+        }
+    }
+}